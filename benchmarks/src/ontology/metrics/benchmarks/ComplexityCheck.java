@@ -0,0 +1,289 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+
+import ontology.metrics.MetricRegistry;
+import ontology.metrics.OntologyGenerator;
+import ontology.metrics.OntologyIndex;
+import ontology.metrics.OntologyMetric;
+import ontology.metrics.StreamingEvaluation;
+import ontology.metrics.StreamingMetric;
+import ontology.metrics.TripleMetricState;
+
+/**
+ * Complexity regression check. Every metric is timed on generated ontologies
+ * of doubling size and the same shape (branching 4, the depth grows with the
+ * size, see {@link OntologyGenerator}), the growth exponent is fitted to the
+ * timings (least squares of log time over log triples) and compared with the
+ * declared complexity class of the metric. The exponent is relative to a linear
+ * scan of the same triples, so the slowdown of every large heap (caches,
+ * garbage collection) does not count. A metric growing
+ * faster than declared (plus the tolerance) is a regression and the check exits
+ * with status 1. CI runs it with both backends in the verify phase of the
+ * profile checks (mvn verify -Pchecks), or directly:
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar ontology.metrics.benchmarks.ComplexityCheck -sizes 2000,4000,8000,16000,32000
+ * </pre>
+ * 
+ * Options: -sizes (class counts, default 2000,4000,8000,16000), -repeat (runs
+ * per size, the fastest counts, default 3), -tolerance (default 0.5, halfway
+ * from linear to quadratic), -metrics (comma separated names) and -stream
+ * (streaming metrics from the triple state instead of the ontology model).
+ */
+public class ComplexityCheck {
+
+	/**
+	 * Growth of the time with the number of triples.
+	 */
+	enum Complexity {
+		LINEAR(1.0), QUADRATIC(2.0);
+
+		final double exponent;
+
+		Complexity(final double iExponent) {
+			this.exponent = iExponent;
+		}
+	}
+
+	private static final int BRANCHING = 4;
+
+	// declared complexity per metric, metrics not listed are linear
+	private static final Map<String, Complexity> DECLARED = new LinkedHashMap<>();
+	static {
+		for (String metric : Arrays.asList("LCOMOnto", "WMCOnto2", "DITOnto", "NACOnto", "NOCOnto", "CBOnto",
+				"RFCOnto", "NOMOnto", "RROnto", "PROnto", "AROnto", "INROnto", "CROnto", "ANOnto", "TMOnto2", "CPOnto",
+				"AGOnto", "EXOnto")) {
+			// the hierarchy, the paths (dynamic programming over the subclass edges)
+			// and the namespace histogram are single passes
+			DECLARED.put(metric, Complexity.LINEAR);
+		}
+	}
+
+	private final List<Integer> sizes;
+	private final int repeat;
+	private final double tolerance;
+	private final boolean stream;
+
+	ComplexityCheck(final List<Integer> iSizes, final int iRepeat, final double iTolerance, final boolean iStream) {
+		this.sizes = iSizes;
+		this.repeat = iRepeat;
+		this.tolerance = iTolerance;
+		this.stream = iStream;
+	}
+
+	/**
+	 * @param iMetrics
+	 *            metrics to check
+	 * @return true if no metric grows faster than declared
+	 * @throws IOException
+	 */
+	boolean run(final List<OntologyMetric> iMetrics) throws IOException {
+		Path dir = Files.createTempDirectory("complexity");
+		List<Path> files = new ArrayList<>();
+		double[] triples = new double[sizes.size()];
+		for (int i = 0; i < sizes.size(); i++) {
+			// Turtle keeps the prefixes of the external namespaces for the streaming
+			// mode, RDF/XML is read by the ontology model
+			Path file = dir.resolve("generated" + sizes.get(i) + (stream ? ".ttl" : ".owl"));
+			triples[i] = new OntologyGenerator().setClasses(sizes.get(i)).setDepth(depth(sizes.get(i)))
+					.setBranching(BRANCHING).setIndividuals(sizes.get(i) / 2).write(file.toString());
+			files.add(file);
+		}
+
+		// warm up on the smallest ontology
+		for (OntologyMetric metric : iMetrics) {
+			time(metric, files.get(0));
+		}
+
+		// a linear scan of the same triples, the growth of its time caused by the
+		// memory (caches, garbage collection) is subtracted from the growth of the
+		// metrics
+		double[] references = new double[files.size()];
+		for (int i = 0; i < files.size(); i++) {
+			references[i] = Double.MAX_VALUE;
+			for (int r = 0; r < repeat; r++) {
+				references[i] = Math.min(references[i], reference(files.get(i)));
+			}
+		}
+		double referenceExponent = exponent(triples, references);
+
+		boolean ok = true;
+		System.out.println(String.format("%-10s %s %9s %9s %s", "metric", timesHeader(), "exponent", "declared",
+				"status"));
+		System.out.println(String.format("%-10s %s%9.2f", "(scan)", format(references), referenceExponent));
+		for (OntologyMetric metric : iMetrics) {
+			double[] times = new double[files.size()];
+			for (int i = 0; i < files.size(); i++) {
+				times[i] = Double.MAX_VALUE;
+				for (int r = 0; r < repeat; r++) {
+					times[i] = Math.min(times[i], time(metric, files.get(i)));
+				}
+			}
+			double exponent = exponent(triples, times) - referenceExponent + 1;
+			Complexity declared = DECLARED.getOrDefault(metric.getName(), Complexity.LINEAR);
+			boolean regression = exponent > declared.exponent + tolerance;
+			ok &= !regression;
+			System.out.println(String.format("%-10s %s%9.2f %9s %s", metric.getName(), format(times), exponent,
+					declared, regression ? "REGRESSION" : "ok"));
+		}
+
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		Files.deleteIfExists(dir);
+		return ok;
+	}
+
+	/**
+	 * @return depth of a full hierarchy of the classes, so all sizes have the
+	 *         same shape (the number of subclasses per class does not grow)
+	 */
+	private static int depth(final int iClasses) {
+		int depth = 1;
+		for (long capacity = 1, level = 1; capacity < iClasses; depth++) {
+			level *= BRANCHING;
+			capacity += level;
+		}
+		return depth;
+	}
+
+	private static String format(final double[] iTimes) {
+		StringBuilder sb = new StringBuilder();
+		for (double t : iTimes) {
+			sb.append(String.format("%9.1f ", t));
+		}
+		return sb.toString();
+	}
+
+	private String timesHeader() {
+		StringBuilder sb = new StringBuilder();
+		for (int size : sizes) {
+			sb.append(String.format("%9s ", size + " ms"));
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * @return milliseconds of the metric computation, the parsing is not
+	 *         included
+	 */
+	private double time(final OntologyMetric iMetric, final Path iFile) {
+		if (stream) {
+			// the state keeps its hierarchy, every run gets a new one
+			TripleMetricState state = StreamingEvaluation.parse(iFile.toString(), null);
+			System.gc();
+			long start = System.nanoTime();
+			((StreamingMetric) iMetric).compute(state);
+			return (System.nanoTime() - start) / 1e6;
+		}
+		OntModel ontologyModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM, null);
+		ontologyModel.read(iFile.toString(), "RDF/XML-ABBREV");
+		ontologyModel.setStrictMode(false);
+		// no collection of the garbage of the parsing during the measurement
+		System.gc();
+		long start = System.nanoTime();
+		iMetric.compute(new OntologyIndex(ontologyModel));
+		return (System.nanoTime() - start) / 1e6;
+	}
+
+	/**
+	 * @return milliseconds of a linear scan of the triples, a pass over all
+	 *         triples of the graph collecting the subjects
+	 */
+	private static double reference(final Path iFile) {
+		Graph graph = RDFDataMgr.loadGraph(iFile.toString());
+		System.gc();
+		long start = System.nanoTime();
+		Set<Node> subjects = new HashSet<>();
+		graph.find(Triple.ANY).forEachRemaining(t -> subjects.add(t.getSubject()));
+		return (System.nanoTime() - start) / 1e6;
+	}
+
+	/**
+	 * @return slope of the least squares line of log(y) over log(x)
+	 */
+	static double exponent(final double[] iX, final double[] iY) {
+		int n = iX.length;
+		double sx = 0, sy = 0, sxx = 0, sxy = 0;
+		for (int i = 0; i < n; i++) {
+			double x = Math.log(iX[i]);
+			double y = Math.log(Math.max(iY[i], 1e-3));
+			sx += x;
+			sy += y;
+			sxx += x * x;
+			sxy += x * y;
+		}
+		return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+	}
+
+	public static void main(String[] args) throws IOException {
+		// the metrics log every step at the INFO level
+		if (System.getProperty("log4j.configuration") == null)
+			System.setProperty("log4j.configuration", "log4j-benchmark.properties");
+
+		List<Integer> sizes = Arrays.asList(2000, 4000, 8000, 16000);
+		int repeat = 3;
+		double tolerance = 0.5;
+		boolean stream = false;
+		List<String> metricNames = null;
+		for (int i = 0; i < args.length; i++) {
+			if ("-sizes".equals(args[i]) && i + 1 < args.length) {
+				sizes = new ArrayList<>();
+				for (String size : args[++i].split(",")) {
+					sizes.add(Integer.parseInt(size));
+				}
+			} else if ("-repeat".equals(args[i]) && i + 1 < args.length) {
+				repeat = Integer.parseInt(args[++i]);
+			} else if ("-tolerance".equals(args[i]) && i + 1 < args.length) {
+				tolerance = Double.parseDouble(args[++i]);
+			} else if ("-metrics".equals(args[i]) && i + 1 < args.length) {
+				metricNames = Arrays.asList(args[++i].split(","));
+			} else if ("-stream".equals(args[i])) {
+				stream = true;
+			}
+		}
+
+		List<OntologyMetric> metrics = new ArrayList<>();
+		for (OntologyMetric metric : metricNames == null ? MetricRegistry.getMetrics().values()
+				: MetricRegistry.getMetrics(metricNames)) {
+			if (!stream || metric instanceof StreamingMetric)
+				metrics.add(metric);
+		}
+
+		if (!new ComplexityCheck(sizes, repeat, tolerance, stream).run(metrics))
+			System.exit(1);
+	}
+
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.riot.Lang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ontology.metrics.CalculateMetrics;
+import ontology.metrics.MetricResult;
+
+/**
+ * A whole evaluation (parsing and all metrics the backend supports) of every
+ * bundled ontology, single threaded, as run by CalculateMetrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SingleShotTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class EvaluationBenchmark {
+
+	private static final List<String> METRICS = Arrays.asList("LCOMOnto", "WMCOnto2", "DITOnto", "NACOnto",
+			"NOCOnto", "CBOnto", "RFCOnto", "NOMOnto", "RROnto", "PROnto", "AROnto", "INROnto", "CROnto", "ANOnto",
+			"TMOnto2", "CPOnto", "AGOnto", "EXOnto");
+
+	@Param({ Ontologies.PIZZA, Ontologies.DOAP, Ontologies.LOCN, Ontologies.CIDOC, Ontologies.EDAM })
+	public String ontology;
+
+	@Param({ "model", "stream" })
+	public String backend;
+
+	@Benchmark
+	public Map<String, MetricResult> evaluate() throws Exception {
+		return new CalculateMetrics(1, METRICS, "stream".equals(backend), Lang.NTRIPLES, null, null)
+				.evaluate(Ontologies.path(ontology));
+	}
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import ontology.metrics.LiveEvaluation;
+import ontology.metrics.MetricRegistry;
+import ontology.metrics.MetricResult;
+import ontology.metrics.OntologyMetric;
+import ontology.metrics.StreamingMetric;
+
+/**
+ * Correctness check of the {@link LiveEvaluation}. Every bundled ontology is
+ * edited the way an editor does (new classes, subclass edges added and
+ * removed, typed individuals, a removed class, a duplicate add, a delete of a
+ * missing triple, a bulk add, a changed prefix) and the live results are
+ * compared after every edit with a full evaluation of the edited model (a new
+ * state read from the whole graph). A difference exits with status 1, CI runs
+ * it in the verify phase of the profile checks (mvn verify -Pchecks):
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar ontology.metrics.benchmarks.LiveEvaluationCheck
+ * </pre>
+ * 
+ * Options: -ontologies (comma separated file names of the resources folder,
+ * default all bundled ontologies).
+ */
+public class LiveEvaluationCheck {
+
+	private final List<OntologyMetric> metrics;
+	private int failures;
+
+	LiveEvaluationCheck(final List<OntologyMetric> iMetrics) {
+		this.metrics = iMetrics;
+	}
+
+	/**
+	 * @param iName
+	 *            file name of a bundled ontology
+	 * @return true if the live results match the full evaluation after every
+	 *         edit
+	 */
+	boolean run(final String iName) {
+		int before = failures;
+		OntModel ontologyModel = Ontologies.load(iName);
+		LiveEvaluation live = new LiveEvaluation(ontologyModel, metrics);
+		compare(iName, "loaded", ontologyModel, live);
+
+		String ns = ontologyModel.getNsPrefixURI("") != null ? ontologyModel.getNsPrefixURI("")
+				: "http://example.org/live#";
+		List<OntClass> classes = ontologyModel.listNamedClasses().toList();
+
+		Resource a = ontologyModel.createResource(ns + "LiveA");
+		Resource b = ontologyModel.createResource(ns + "LiveB");
+		ontologyModel.add(a, RDF.type, OWL.Class);
+		ontologyModel.add(a, RDFS.label, "live A");
+		compare(iName, "class added", ontologyModel, live);
+
+		ontologyModel.add(b, RDF.type, OWL.Class);
+		ontologyModel.add(b, RDFS.subClassOf, a);
+		if (!classes.isEmpty())
+			ontologyModel.add(a, RDFS.subClassOf, classes.get(0));
+		compare(iName, "subclasses added", ontologyModel, live);
+
+		Resource individual = ontologyModel.createResource(ns + "liveIndividual");
+		ontologyModel.add(individual, RDF.type, b);
+		ontologyModel.add(individual, RDF.type, a);
+		compare(iName, "individual typed", ontologyModel, live);
+
+		// neither changes the model
+		ontologyModel.add(a, RDFS.label, "live A");
+		ontologyModel.remove(ontologyModel.createResource(ns + "LiveGhost"), RDFS.label,
+				ontologyModel.createLiteral("ghost"));
+		compare(iName, "duplicate add, missing delete", ontologyModel, live);
+
+		ontologyModel.remove(b, RDFS.subClassOf, a);
+		if (classes.size() > 1)
+			ontologyModel.remove(classes.get(1), RDF.type, OWL.Class);
+		compare(iName, "subclass and class removed", ontologyModel, live);
+
+		// a bulk add with a triple already in the model
+		Model bulk = ModelFactory.createDefaultModel();
+		bulk.add(a, RDFS.label, "live A");
+		bulk.add(ontologyModel.createResource(ns + "LiveC"), RDF.type, OWL.Class);
+		bulk.add(ontologyModel.createResource(ns + "LiveC"), RDFS.subClassOf, b);
+		ontologyModel.add(bulk);
+		compare(iName, "bulk add", ontologyModel, live);
+
+		ontologyModel.remove(bulk);
+		compare(iName, "bulk remove", ontologyModel, live);
+
+		ontologyModel.setNsPrefix("live", "http://example.org/live/");
+		ontologyModel.removeNsPrefix("xsd");
+		compare(iName, "prefixes changed", ontologyModel, live);
+
+		live.detach();
+		System.out.println(String.format("%-45s %s", iName, failures == before ? "ok" : "MISMATCH"));
+		return failures == before;
+	}
+
+	/**
+	 * Compares the live results with a new evaluation of the whole model.
+	 */
+	private void compare(final String iName, final String iStep, final OntModel iOntologyModel,
+			final LiveEvaluation iLive) {
+		Map<String, MetricResult> expected = new LiveEvaluation(iOntologyModel, metrics).getResults();
+		Map<String, MetricResult> actual = iLive.getResults();
+		for (Map.Entry<String, MetricResult> entry : expected.entrySet()) {
+			MetricResult result = actual.get(entry.getKey());
+			if (result == null || !result.toString().equals(entry.getValue().toString())) {
+				failures++;
+				System.out.println(iName + " (" + iStep + ") " + entry.getKey() + ": live " + result + ", full "
+						+ entry.getValue());
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		// the metrics log every step at the INFO level
+		if (System.getProperty("log4j.configuration") == null)
+			System.setProperty("log4j.configuration", "log4j-benchmark.properties");
+
+		List<String> ontologies = Arrays.asList(Ontologies.PIZZA, Ontologies.DOAP, Ontologies.LOCN, Ontologies.CIDOC,
+				Ontologies.EDAM);
+		for (int i = 0; i < args.length; i++) {
+			if ("-ontologies".equals(args[i]) && i + 1 < args.length)
+				ontologies = Arrays.asList(args[++i].split(","));
+		}
+
+		// the live evaluation computes the streaming metrics only
+		List<OntologyMetric> metrics = new ArrayList<>();
+		for (OntologyMetric metric : MetricRegistry.getMetrics().values()) {
+			if (metric instanceof StreamingMetric)
+				metrics.add(metric);
+		}
+		LiveEvaluationCheck check = new LiveEvaluationCheck(metrics);
+		boolean ok = true;
+		for (String ontology : ontologies) {
+			ok &= check.run(ontology);
+		}
+		if (!ok)
+			System.exit(1);
+	}
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.nio.file.Paths;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+
+/**
+ * The ontologies bundled in the resources folder of the metrics project. The
+ * folder is taken from the system property ontology.dir (default
+ * ../resources, i.e. the benchmarks are run from the benchmarks folder).
+ */
+final class Ontologies {
+
+	static final String PIZZA = "Pizza.owl";
+	static final String DOAP = "DOAP.owl";
+	static final String LOCN = "locn.rdf";
+	static final String CIDOC = "cidoc_crm_v6.2-draft-2015August.rdf";
+	static final String EDAM = "EDAM_1.20.owl";
+
+	private static final String DIR = System.getProperty("ontology.dir", "../resources");
+
+	private Ontologies() {
+	}
+
+	/**
+	 * @param iName
+	 *            file name of a bundled ontology
+	 * @return path of the ontology file
+	 */
+	static String path(final String iName) {
+		return Paths.get(DIR, iName).toString();
+	}
+
+	/**
+	 * Reads the ontology the same way as CalculateMetrics (OWL_MEM, non-strict).
+	 * 
+	 * @param iName
+	 *            file name of a bundled ontology
+	 * @return ontology model
+	 */
+	static OntModel load(final String iName) {
+		OntModel ontologyModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM, null);
+		ontologyModel.read(path(iName), "RDF/XML-ABBREV");
+		ontologyModel.setStrictMode(false);
+		return ontologyModel;
+	}
+
+}
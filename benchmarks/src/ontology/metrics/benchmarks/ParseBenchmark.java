@@ -0,0 +1,63 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ontology.metrics.StreamingEvaluation;
+
+/**
+ * Parsing of the bundled ontologies by every backend: "model" reads the
+ * ontology into an OWL_MEM ontology model, "stream" collects the
+ * {@link ontology.metrics.TripleMetricState} directly from the parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SingleShotTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class ParseBenchmark {
+
+	@Param({ Ontologies.PIZZA, Ontologies.DOAP, Ontologies.LOCN, Ontologies.CIDOC, Ontologies.EDAM })
+	public String ontology;
+
+	@Param({ "model", "stream" })
+	public String backend;
+
+	@Benchmark
+	public Object parse() {
+		switch (backend) {
+		case "model":
+			return Ontologies.load(ontology);
+		case "stream":
+			return StreamingEvaluation.parse(Ontologies.path(ontology), null);
+		default:
+			throw new IllegalArgumentException("Unknown backend: " + backend);
+		}
+	}
+
+}
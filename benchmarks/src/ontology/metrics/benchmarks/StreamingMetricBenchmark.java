@@ -0,0 +1,79 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ontology.metrics.MetricRegistry;
+import ontology.metrics.MetricResult;
+import ontology.metrics.StreamingEvaluation;
+import ontology.metrics.StreamingMetric;
+import ontology.metrics.TripleMetricState;
+
+/**
+ * Every streaming metric on every bundled ontology, computed from the
+ * {@link TripleMetricState}. The state keeps the hierarchy and its path
+ * statistics once computed, so the ontology is streamed again before every
+ * invocation (not measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SingleShotTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configuration=log4j-benchmark.properties")
+public class StreamingMetricBenchmark {
+
+	@Param({ Ontologies.PIZZA, Ontologies.DOAP, Ontologies.LOCN, Ontologies.CIDOC, Ontologies.EDAM })
+	public String ontology;
+
+	@Param({ "LCOMOnto", "WMCOnto2", "DITOnto", "NACOnto", "NOCOnto", "CBOnto", "RROnto", "PROnto", "INROnto",
+			"CROnto", "ANOnto", "TMOnto2", "CPOnto", "AGOnto", "EXOnto" })
+	public String metric;
+
+	private StreamingMetric streamingMetric;
+	private TripleMetricState state;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		streamingMetric = (StreamingMetric) MetricRegistry.getMetrics().get(metric);
+		if (streamingMetric == null)
+			throw new IllegalArgumentException("Unknown metric: " + metric);
+	}
+
+	@Setup(Level.Invocation)
+	public void parse() {
+		state = StreamingEvaluation.parse(Ontologies.path(ontology), null);
+	}
+
+	@Benchmark
+	public MetricResult compute() {
+		return streamingMetric.compute(state);
+	}
+
+}
@@ -15,17 +15,21 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Set;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.OntClass;
 import org.apache.jena.ontology.OntModel;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
-import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,22 +40,57 @@ import org.slf4j.LoggerFactory;
  * ∑|Cj|; where ApCi is the i-th annotation and Cj is the j-th concept in the
  * ontology. Reference: http://miuras.inf.um.es/oquarewiki/
  * 
+ * Annotations are the statements of a concept with one of the OWL annotation
+ * properties (rdfs:comment, rdfs:label, rdfs:seeAlso, rdfs:isDefinedBy,
+ * owl:versionInfo) or a predicate declared as owl:AnnotationProperty in the
+ * ontology (e.g. skos:prefLabel). Each annotation predicate is iterated once
+ * and its subjects are looked up in the set of concepts.
+ * 
  * @author Andrej Tibaut
  */
-public class ANOnto {
+public class ANOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public ANOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("ANOnto - Annotation Richness");
+	// annotation properties defined by OWL
+	static final Set<Node> ANNOTATIONS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+			RDFS.comment.asNode(), RDFS.label.asNode(), RDFS.seeAlso.asNode(), RDFS.isDefinedBy.asNode(),
+			OWL.versionInfo.asNode())));
+
+	@Override
+	public String getName() {
+		return "ANOnto";
+	}
 
+	@Override
+	public int getEstimatedCost() {
+		return 2;
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
-		// Find all annotations for the list of concepts (classes) from the ontology
-		final List<RDFNode> classAnnotations = findAllAnnotations(allConcepts);
-		int nca = classAnnotations.size();
+		Set<Node> concepts = new HashSet<>();
+		for (OntClass aConcept : allConcepts) {
+			concepts.add(aConcept.asNode());
+		}
+
+		// count all annotations of the concepts (classes) from the ontology
+		long nca = countAnnotations(index.getOntologyModel(), concepts);
+
+		return getANOnto(nc, nca);
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return getANOnto(iState.getNumberOfNamedConcepts(), iState.getNumberOfAnnotationsOfConcepts());
+	}
+
+	private MetricResult getANOnto(int nc, long nca) {
+		logger.info("*********************************************");
+		logger.info("ANOnto - Annotation Richness");
 
 		double ANOnto = (double) nca / nc;
 
@@ -59,83 +98,47 @@ public class ANOnto {
 		logger.info("Number of annotations of all concepts: " + nca);
 		logger.info("ANOnto: " + ANOnto);
 		logger.info("*********************************************");
-	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
+		return new MetricResult(getName(), ANOnto, nca, nc, Collections.<String, Number>emptyMap());
 	}
 
 	/**
-	 * Collects all annotation properties as defined in OWL (owl:versionInfo,
-	 * rdfs:label rdfs:comment rdfs:seeAlso rdfs:isDefinedBy). Reference:
-	 * https://www.w3.org/TR/owl-ref/ (see owl:AnnotationProperty)
+	 * Counts the annotations of the concepts. Each annotation property (the OWL
+	 * ones and the predicates declared as owl:AnnotationProperty) is iterated
+	 * once over the graph, no statements or literals are created.
 	 * 
+	 * @param iOntologyModel
+	 *            ontology model
 	 * @param iConcepts
-	 * @return list of all OWL annotations
+	 *            nodes of the named concepts
+	 * @return number of annotations of the concepts
 	 * @author Andrej Tibaut
 	 */
-	public static List<RDFNode> findAllAnnotations(final List<OntClass> iConcepts) {
-		final List<RDFNode> results = new ArrayList<RDFNode>();
-
-		ListIterator<OntClass> liConcepts = iConcepts.listIterator();
-
-
-		while (liConcepts.hasNext()) {
-			OntClass ontClass = (OntClass) liConcepts.next();
-//			ontClass.list
-			if (ontClass.getURI() != null) {
-
-				Resource c = ontClass.getOntModel().createResource(ontClass.getNameSpace() + ontClass.getLocalName());
-				StmtIterator iter = ontClass.getOntModel().listStatements(c, RDFS.comment, (RDFNode) null);
-				while (iter.hasNext()) {
-					Statement stmt = iter.nextStatement();
-					RDFNode resource = (RDFNode) stmt.getObject().asLiteral();
-					results.add(resource);
-				}
-
-				c = ontClass.getOntModel().createResource(ontClass.getNameSpace() + ontClass.getLocalName());
-				iter = ontClass.getOntModel().listStatements(c, RDFS.label, (RDFNode) null);
-				while (iter.hasNext()) {
-					Statement stmt = iter.nextStatement();
-					RDFNode resource = (RDFNode) stmt.getObject().asLiteral();
-					results.add(resource);
-				}
-
-				c = ontClass.getOntModel().createResource(ontClass.getNameSpace() + ontClass.getLocalName());
-				iter = ontClass.getOntModel().listStatements(c, RDFS.seeAlso, (RDFNode) null);
-				while (iter.hasNext()) {
-					Statement stmt = iter.nextStatement();
-					RDFNode resource = (RDFNode) stmt.getObject().asLiteral();
-					results.add(resource);
-				}
+	public static long countAnnotations(final OntModel iOntologyModel, final Set<Node> iConcepts) {
+		final Graph graph = iOntologyModel.getGraph();
 
-				c = ontClass.getOntModel().createResource(ontClass.getNameSpace() + ontClass.getLocalName());
-				iter = ontClass.getOntModel().listStatements(c, RDFS.isDefinedBy, (RDFNode) null);
-				while (iter.hasNext()) {
-					Statement stmt = iter.nextStatement();
-					RDFNode resource = (RDFNode) stmt.getObject().asLiteral();
-					results.add(resource);
-				}
+		Set<Node> properties = new LinkedHashSet<>(ANNOTATIONS);
+		ExtendedIterator<Triple> it = graph.find(Node.ANY, RDF.type.asNode(), OWL.AnnotationProperty.asNode());
+		while (it.hasNext()) {
+			properties.add(it.next().getSubject());
+		}
 
-				c = ontClass.getOntModel().createResource(ontClass.getNameSpace() + ontClass.getLocalName());
-				iter = ontClass.getOntModel().listStatements(c, OWL.versionInfo, (RDFNode) null);
-				while (iter.hasNext()) {
-					Statement stmt = iter.nextStatement();
-					RDFNode resource = (RDFNode) stmt.getObject().asLiteral();
-					results.add(resource);
+		long n = 0;
+		for (Node aProperty : properties) {
+			it = graph.find(Node.ANY, aProperty, Node.ANY);
+			try {
+				while (it.hasNext()) {
+					if (iConcepts.contains(it.next().getSubject()))
+						n++;
 				}
-
+			} finally {
+				it.close();
 			}
 		}
-		return results;
+		if (logger.isDebugEnabled())
+			logger.debug("Annotation properties: " + properties);
+
+		return n;
 	}
 
 }
\ No newline at end of file
@@ -15,91 +15,85 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.Restriction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * AROnto - Attribute richness. Number of property restrictions
  * (owl:Restrictions (owl:someValuesFrom, owl:allValuesFrom, owl:hasValue,
- * owl:minCardinality, owl:maxCardinality)) nested inside of rdfs:subClassOf per
- * concept in the ontology. Formula: AROnto=∑|RestCi| / ∑|Cj|; where RestCi is
- * the i-th restriction and Cj is the j-th concept in the ontology. Reference:
+ * owl:minCardinality, owl:maxCardinality)) nested inside of rdfs:subClassOf
+ * or owl:equivalentClass (also within owl:intersectionOf) per concept in the
+ * ontology. Formula: AROnto=∑|RestCi| / ∑|Cj|; where RestCi is the i-th
+ * restriction and Cj is the j-th concept in the ontology. Reference:
  * http://miuras.inf.um.es/oquarewiki/
  * 
+ * The restrictions are looked up in the {@link RestrictionIndex}, the number of
+ * restrictions of each kind is reported in the details. Exact cardinalities
+ * (owl:cardinality) are reported in the details too, but are not counted.
+ * 
  * @author Andrej Tibaut
  */
-public class AROnto {
+public class AROnto implements OntologyMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public AROnto(OntModel ontologyModel) {
+	// kinds of restrictions counted in the numerator
+	private static final Set<RestrictionIndex.Kind> COUNTED = EnumSet.range(RestrictionIndex.Kind.SOME_VALUES_FROM,
+			RestrictionIndex.Kind.MAX_CARDINALITY);
+
+	@Override
+	public String getName() {
+		return "AROnto";
+	}
+
+	@Override
+	public int getEstimatedCost() {
+		return 4;
+	}
+
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.RESTRICTIONS);
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		logger.info("*********************************************");
 		logger.info("AROnto - Attribute richness");
 
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
 		// Find all restrictions for the list of concepts (classes) from the ontology
-		int ncr = countAllRestrictionsForTheConcepts(allConcepts);
+		final RestrictionIndex restrictions = index.getRestrictions();
+		int ncr = 0;
+		Map<String, Number> details = new LinkedHashMap<>();
+		for (RestrictionIndex.Kind aKind : RestrictionIndex.Kind.values()) {
+			int n = 0;
+			for (OntClass aConcept : allConcepts) {
+				n += restrictions.getRestrictionCount(index.getId(aConcept), aKind);
+			}
+			details.put(aKind.getLabel(), n);
+			if (COUNTED.contains(aKind))
+				ncr += n;
+		}
 
 		double AROnto = (double) ncr / nc;
 
 		logger.info("Number of all concepts: " + nc);
-		logger.info("Number of restrictions for the concepts: " + ncr);
+		logger.info("Number of restrictions for the concepts: " + ncr + " " + details);
 		logger.info("AROnto: " + AROnto);
 		logger.info("*********************************************");
-	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
-	}
-
-	/**
-	 * The method collects all owl:Restriction (owl:someValuesFrom,
-	 * owl:allValuesFrom, owl:hasValue, owl:minCardinality, owl:maxCardinality) for
-	 * the given list of classes. Some ideas are from
-	 * https://stackoverflow.com/questions/7779927/get-owl-restrictions-on-classes-using-jena
-	 * 
-	 * @param iConcepts
-	 *            list of unique
-	 * @return Number of all restrictions for the given list of classes
-	 * @author Andrej Tibaut
-	 */
-	public static int countAllRestrictionsForTheConcepts(final List<OntClass> iConcepts) {
-		int ncr = 0;
-		ListIterator<OntClass> liConcepts = iConcepts.listIterator();
-		while (liConcepts.hasNext()) {
-			OntClass ontConcept = (OntClass) liConcepts.next();
-			// restrictions are enclosed inside rdfs:subClassOf so we are searching for
-			// owl:Restriction inside them
-			for (Iterator<OntClass> supConcepts = ontConcept.listSuperClasses(); supConcepts.hasNext();) {
-				OntClass supConcept = supConcepts.next();
-				if (supConcept.isRestriction()) {
-					Restriction restriction = supConcept.asRestriction();
-					if (restriction.isSomeValuesFromRestriction() || restriction.isAllValuesFromRestriction()
-							|| restriction.isHasValueRestriction() || restriction.isMinCardinalityRestriction()
-							|| restriction.isMaxCardinalityRestriction()) {
-						ncr++;
-					}
-				}
-			}
-		}
-		return ncr;
+		return new MetricResult(getName(), AROnto, ncr, nc, details);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.apache.jena.riot.RDFLanguages;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluation of a catalog of ontologies in one JVM. Several ontologies are
+ * evaluated concurrently; an ontology is started only when its estimated heap
+ * (proportional to the file size) fits into the free part of the heap budget,
+ * so several large files are not loaded at the same time. A file larger than
+ * the whole budget is evaluated alone.
+ * 
+ * One CSV row per ontology (file, status, time in ms, metric values) is written
+ * as soon as the ontology is finished, so the rows are in the order of
+ * completion.
+ */
+public class BatchEvaluation {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	// estimated heap per byte of the file: ontology model with the index, or the
+	// streaming statistics
+	private static final int MODEL_HEAP_FACTOR = 10;
+	private static final int STREAM_HEAP_FACTOR = 1;
+	private static final long MB = 1L << 20;
+
+	private final CalculateMetrics evaluation;
+	private final int parallelism;
+	// heap budget in MB
+	private final int budget;
+	private final Semaphore heap;
+
+	/**
+	 * @param iEvaluation
+	 *            evaluation of a single ontology (metrics, mode)
+	 * @param iParallelism
+	 *            maximal number of ontologies evaluated at the same time
+	 */
+	public BatchEvaluation(final CalculateMetrics iEvaluation, final int iParallelism) {
+		this.evaluation = iEvaluation;
+		this.parallelism = Math.max(1, iParallelism);
+		// 3/4 of the maximal heap, the rest is left for the JVM and the output
+		this.budget = (int) Math.max(1, Runtime.getRuntime().maxMemory() / MB * 3 / 4);
+		this.heap = new Semaphore(budget, true);
+	}
+
+	/**
+	 * Resolves the ontology files of a catalog.
+	 * 
+	 * @param iCatalog
+	 *            a directory (all RDF files in it), a glob pattern (e.g.
+	 *            "resources/*.owl", "releases/v1.?/core.owl" or "catalog/**.ttl",
+	 *            the wildcards may be in any segment, ** crosses directories) or a list file
+	 *            ("@list.txt", one file per line, lines starting with # are
+	 *            ignored)
+	 * @return files, sorted by name for directories and globs
+	 * @throws IOException
+	 */
+	public static List<String> resolve(final String iCatalog) throws IOException {
+		List<String> files = new ArrayList<>();
+		if (iCatalog.startsWith("@")) {
+			for (String line : Files.readAllLines(Paths.get(iCatalog.substring(1)), StandardCharsets.UTF_8)) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#"))
+					files.add(line);
+			}
+			return files;
+		}
+
+		if (!isGlob(iCatalog)) {
+			Path path = Paths.get(iCatalog);
+			if (Files.isRegularFile(path))
+				return Collections.singletonList(iCatalog);
+			if (!Files.isDirectory(path))
+				throw new IOException("Not a file, directory, glob pattern or list file: " + iCatalog);
+			try (DirectoryStream<Path> dir = Files.newDirectoryStream(path)) {
+				for (Path file : dir) {
+					addRDFFile(file, files);
+				}
+			}
+		} else {
+			// the segments before the first wildcard are the directory to walk, the
+			// rest of the pattern is matched against the paths relative to it
+			String[] segments = iCatalog.split("/", -1);
+			int fixed = 0;
+			while (fixed < segments.length - 1 && !isGlob(segments[fixed])) {
+				fixed++;
+			}
+			String root = String.join("/", Arrays.asList(segments).subList(0, fixed));
+			String pattern = String.join("/", Arrays.asList(segments).subList(fixed, segments.length));
+			boolean relative = root.isEmpty() && !iCatalog.startsWith("/");
+			Path dir = relative ? Paths.get(".") : Paths.get(root.isEmpty() ? "/" : root);
+			PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + pattern);
+			int depth = pattern.contains("**") ? Integer.MAX_VALUE : segments.length - fixed;
+			if (Files.isDirectory(dir)) {
+				try (Stream<Path> walk = Files.walk(dir, depth)) {
+					for (Path file : (Iterable<Path>) walk::iterator) {
+						Path path = dir.relativize(file);
+						if (matcher.matches(path))
+							addRDFFile(relative ? path : file, files);
+					}
+				}
+			}
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	private static boolean isGlob(final String iPattern) {
+		for (char c : iPattern.toCharArray()) {
+			if (c == '*' || c == '?' || c == '[' || c == '{')
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the file if it is a regular file with an RDF syntax known from the
+	 * file extension.
+	 */
+	private static void addRDFFile(final Path iFile, final List<String> iFiles) {
+		if (Files.isRegularFile(iFile) && RDFLanguages.filenameToLang(iFile.toString()) != null)
+			iFiles.add(iFile.toString());
+	}
+
+	/**
+	 * Evaluates the ontologies and writes one CSV row per ontology.
+	 * 
+	 * @param iFiles
+	 *            ontology files
+	 * @param iOut
+	 *            output for the result rows
+	 * @throws InterruptedException
+	 * @throws Error
+	 *             the first error of an evaluation (e.g. OutOfMemoryError); no
+	 *             further ontology is started after it
+	 */
+	public void run(final List<String> iFiles, final PrintStream iOut) throws InterruptedException {
+		logger.info("Evaluating " + iFiles.size() + " ontologies with " + parallelism + " threads, heap budget "
+				+ budget + " MB");
+
+		iOut.println(header());
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		AtomicReference<Error> error = new AtomicReference<>();
+		try {
+			for (String file : iFiles) {
+				// admission in the order of the files, the permits are released by
+				// the worker
+				int cost = estimateHeap(file);
+				heap.acquire(cost);
+				if (error.get() != null) {
+					heap.release(cost);
+					break;
+				}
+				executor.execute(() -> {
+					try {
+						evaluate(file, iOut);
+					} catch (Error e) {
+						// the heap may be exhausted, no further ontology is admitted
+						error.compareAndSet(null, e);
+						throw e;
+					} finally {
+						heap.release(cost);
+					}
+				});
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		if (error.get() != null)
+			throw error.get();
+	}
+
+	/**
+	 * @return estimated heap in MB, at most the whole budget
+	 */
+	private int estimateHeap(final String iFile) {
+		long size;
+		try {
+			size = Files.size(Paths.get(iFile));
+		} catch (IOException | RuntimeException e) {
+			size = 0;
+		}
+		long factor = evaluation.isStream() ? STREAM_HEAP_FACTOR : MODEL_HEAP_FACTOR;
+		return (int) Math.min(budget, Math.max(1, size * factor / MB));
+	}
+
+	private void evaluate(final String iFile, final PrintStream iOut) {
+		long start = System.currentTimeMillis();
+		String row;
+		try {
+			Map<String, MetricResult> results = evaluation.evaluate(iFile);
+			StringBuilder sb = new StringBuilder();
+			sb.append(quote(iFile)).append(",OK,").append(System.currentTimeMillis() - start);
+			for (String name : evaluation.getMetricNames()) {
+				MetricResult result = results.get(name);
+				sb.append(',');
+				if (result != null)
+					sb.append(result.getValue());
+			}
+			row = sb.toString();
+		} catch (Exception e) {
+			logger.error("Failed: " + iFile, e);
+			StringBuilder sb = new StringBuilder();
+			sb.append(quote(iFile)).append(',').append(quote("ERROR: " + e)).append(',')
+					.append(System.currentTimeMillis() - start);
+			// empty metric cells, so every row has the columns of the header
+			for (int i = 0; i < evaluation.getMetricNames().size(); i++) {
+				sb.append(',');
+			}
+			row = sb.toString();
+		}
+		// one row at a time
+		synchronized (iOut) {
+			iOut.println(row);
+		}
+	}
+
+	private String header() {
+		StringBuilder sb = new StringBuilder("ontology,status,time_ms");
+		for (String name : evaluation.getMetricNames()) {
+			sb.append(',').append(name);
+		}
+		return sb.toString();
+	}
+
+	private static String quote(final String iValue) {
+		if (iValue.indexOf(',') < 0 && iValue.indexOf('"') < 0 && iValue.indexOf('\n') < 0)
+			return iValue;
+		return '"' + iValue.replace("\"", "\"\"").replace('\n', ' ') + '"';
+	}
+
+}
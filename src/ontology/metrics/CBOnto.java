@@ -15,11 +15,11 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,83 +33,73 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class CBOnto {
+public class CBOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public CBOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("CBOnto - Coupling between Objects");
-
-		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+	@Override
+	public String getName() {
+		return "CBOnto";
+	}
 
-		// Find all subClass concepts (classes) in the graph
-		int npar = getNumberOfAllAncestors(allConcepts);
+	@Override
+	public int getEstimatedCost() {
+		return 2;
+	}
 
-		// Find all subClass concepts (classes) in the graph
-		final List<OntClass> cwpt = findConpcetsWithOwlThingAsDirectAncestor(ontologyModel);
-		for (OntClass ontClass : cwpt) {
-			OntClass thing = ontClass.getSuperClass();
-			String name = ((thing == null) || (thing.getLocalName() == null) ? "N/A" : thing.getLocalName());
-			logger.info(" Class " + ontClass.getLocalName() + " has superClass " + name);
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		MetricResult result = compute(index.getCompactHierarchy());
+		// the superclass is taken from the index, the model is not read by metrics
+		if (logger.isDebugEnabled()) {
+			for (OntClass ontClass : index.getRootConcepts()) {
+				List<OntClass> supers = index.getSuperClasses(ontClass);
+				OntClass thing = supers.isEmpty() ? null : supers.get(0);
+				String name = ((thing == null) || (thing.getLocalName() == null) ? "N/A" : thing.getLocalName());
+				logger.debug(" Class " + ontClass.getLocalName() + " has superClass " + name);
+			}
 		}
-
-		double cboonto = (double) npar / (allConcepts.size() - cwpt.size());
-
-		logger.info("Number of all concepts: " + allConcepts.size());
-		logger.info("Number of all ancestor concepts (with some ancestor): " + npar);
-		logger.info("Number of concepts with owl:Thing as direct ancestor: " + cwpt.size());
-		logger.info("CBOOnto: " + cboonto);
-		logger.info("*********************************************");
-
+		return result;
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
+	}
 
-		return iOntologyModel.listNamedClasses().toList();
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
 	}
 
-	/**
-	 * The method finds all concepts with more than one parent in the ontology
-	 * 
-	 * @param iOntModel
-	 * @return Hashmap of all concepts with more than one parent in the ontology
-	 *         including corresponding number of parents
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findConpcetsWithOwlThingAsDirectAncestor(final OntModel iOntModel) {
+	private MetricResult compute(final CompactHierarchy hierarchy) {
+		logger.info("*********************************************");
+		logger.info("CBOnto - Coupling between Objects");
 
-		// list of concepts that have owl:Thing as their direct super-concept
-		return iOntModel.listHierarchyRootClasses().toList();
+		int nc = 0;
+		int npar = 0;
+		for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+			if (hierarchy.isNamedConcept(aConcept)) {
+				nc++;
+				npar += hierarchy.getSuperClassCount(aConcept);
+			}
+		}
 
+		return getCBOnto(nc, npar, hierarchy.getRootConcepts().length);
 	}
 
-	/**
-	 * The method finds all concepts with more than one parent in the ontology
-	 * 
-	 * @param iOntologyModel
-	 * @return Hashmap of all concepts with more than one parent in the ontology
-	 *         including corresponding number of parents
-	 * @author Andrej Tibaut
-	 */
-	public int getNumberOfAllAncestors(final List<OntClass> iConcepts) {
-		int np = 0;
+	private MetricResult getCBOnto(int nc, int npar, int nr) {
+		double cboonto = (double) npar / (nc - nr);
 
-		ListIterator<OntClass> liConcepts = iConcepts.listIterator();
+		logger.info("Number of all concepts: " + nc);
+		logger.info("Number of all ancestor concepts (with some ancestor): " + npar);
+		logger.info("Number of concepts with owl:Thing as direct ancestor: " + nr);
+		logger.info("CBOOnto: " + cboonto);
+		logger.info("*********************************************");
 
-		while (liConcepts.hasNext()) {
-			OntClass ontClass = (OntClass) liConcepts.next();
-			// get only direct parent concepts (=true)
-			np += ontClass.listSuperClasses(true).toList().size();
-		}
-		return np;
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("concepts", nc);
+		details.put("rootConcepts", nr);
+		return new MetricResult(getName(), cboonto, npar, nc - nr, details);
 	}
 
 }
\ No newline at end of file
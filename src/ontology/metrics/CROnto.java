@@ -15,11 +15,21 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.OntResource;
 import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,41 +40,249 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  *
  */
-public class CROnto {
+public class CROnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public CROnto(OntModel ontologyModel) {
+	@Override
+	public String getName() {
+		return "CROnto";
+	}
+
+	@Override
+	public int getEstimatedCost() {
+		return 2;
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		logger.info("*********************************************");
+		logger.info("CROnto - Class Richness");
+
+		MetricResult crOnto = getCROnto(index);
+		logger.info("CROnto: " + crOnto.getValue());
+		logger.info("*********************************************");
+
+		return crOnto;
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
 		logger.info("*********************************************");
 		logger.info("CROnto - Class Richness");
 
-		double inrOnto = getCROnto(ontologyModel);
-		logger.info("CROnto: " + inrOnto);
+		double nc = iState.getNumberOfDeclaredClasses(); // number of concepts
+		double nin = iState.getNumberOfDirectIndividuals(); // number of direct indivuduals
+		logger.info("Number of all concepts: " + nc);
+		logger.info("Number of all direct individuals: " + nin);
+
+		double crOnto = nin / nc;
+		logger.info("CROnto: " + crOnto);
 		logger.info("*********************************************");
 
+		return new MetricResult(getName(), crOnto, nin, nc, Collections.<String, Number>emptyMap());
 	}
 
-	public static double getCROnto(final OntModel iOntologyModel) {
+	public MetricResult getCROnto(final OntologyIndex iIndex) {
 		double inrOnto = 0;
 		double nc = 0; // number of concepts
 		double nin = 0; // number of direct indivuduals
 
-		final ExtendedIterator<OntClass> allConcepts = iOntologyModel.listClasses();
-		while (allConcepts.hasNext()) {
+		// ids of the named concepts in the subsumption hierarchy
+		Map<Node, Integer> concepts = new HashMap<>();
+		for (OntClass aConcept : iIndex.getAllClasses()) {
 			nc++;
-			OntClass aConcept = (OntClass) allConcepts.next();
-			if (aConcept.getURI() != null) {
-				ExtendedIterator<? extends OntResource> iter = aConcept.listInstances(true);
-				if (iter.hasNext()) {
-					nin += iter.toList().size();
-				}
-			}
+			if (aConcept.getURI() != null)
+				concepts.put(aConcept.asNode(), iIndex.getId(aConcept));
+		}
+
+		int[] direct = countDirectInstances(iIndex.getOntologyModel().getGraph(), iIndex.getCompactHierarchy(),
+				concepts);
+		for (int n : direct) {
+			nin += n;
 		}
 		logger.info("Number of all concepts: " + nc);
 		logger.info("Number of all direct individuals: " + nin);
 
 		inrOnto = nin / nc;
 
-		return inrOnto;
+		return new MetricResult(getName(), inrOnto, nin, nc, Collections.<String, Number>emptyMap());
+	}
+
+	/**
+	 * Counts the direct individuals of each concept with one scan of the rdf:type
+	 * triples. A type of an individual is direct unless it is a superclass
+	 * (transitively) of another type of the same individual, the superclasses are
+	 * taken from the subsumption hierarchy.
+	 * 
+	 * @param iGraph
+	 *            graph of the ontology
+	 * @param iHierarchy
+	 *            subsumption hierarchy
+	 * @param iConcepts
+	 *            concept node -> id in the hierarchy
+	 * @return number of direct individuals per concept id
+	 */
+	public static int[] countDirectInstances(final Graph iGraph, final CompactHierarchy iHierarchy,
+			final Map<Node, Integer> iConcepts) {
+		// individual -> ids of its types, the first element is the number of types
+		Map<Node, int[]> types = new HashMap<>();
+		ExtendedIterator<Triple> it = iGraph.find(Node.ANY, RDF.type.asNode(), Node.ANY);
+		try {
+			while (it.hasNext()) {
+				Triple t = it.next();
+				Integer c = iConcepts.get(t.getObject());
+				if (c != null)
+					types.put(t.getSubject(), add(types.get(t.getSubject()), c));
+			}
+		} finally {
+			it.close();
+		}
+		return countDirectInstances(types.values(), iHierarchy);
+	}
+
+	/**
+	 * Counts the direct individuals of each concept as
+	 * {@link #countDirectInstances(Graph, CompactHierarchy, Map)} from the
+	 * asserted types of a streamed ontology.
+	 * 
+	 * @param iTypes
+	 *            individual -> asserted types
+	 * @param iHierarchy
+	 *            subsumption hierarchy
+	 * @param iConcepts
+	 *            concept node -> id in the hierarchy
+	 * @return number of direct individuals per concept id
+	 */
+	public static int[] countDirectInstances(final Map<Node, List<Node>> iTypes, final CompactHierarchy iHierarchy,
+			final Map<Node, Integer> iConcepts) {
+		List<int[]> types = new ArrayList<>(iTypes.size());
+		for (List<Node> aTypes : iTypes.values()) {
+			int[] ids = getTypeIds(aTypes, iConcepts);
+			if (ids != null)
+				types.add(ids);
+		}
+		return countDirectInstances(types, iHierarchy);
+	}
+
+	/**
+	 * @param iTypes
+	 *            asserted types of an individual
+	 * @param iConcepts
+	 *            concept node -> id in the hierarchy
+	 * @return ids of the types that are concepts, the first element is the
+	 *         number of types, null if none is a concept
+	 */
+	static int[] getTypeIds(final List<Node> iTypes, final Map<Node, Integer> iConcepts) {
+		int[] ids = null;
+		for (Node aType : iTypes) {
+			Integer c = iConcepts.get(aType);
+			if (c != null)
+				ids = add(ids, c);
+		}
+		return ids;
+	}
+
+	/**
+	 * @param iTypes
+	 *            ids of the types of each individual, the first element is the
+	 *            number of types
+	 * @param iHierarchy
+	 *            subsumption hierarchy
+	 * @return number of direct individuals per concept id
+	 */
+	private static int[] countDirectInstances(final Collection<int[]> iTypes, final CompactHierarchy iHierarchy) {
+		int[] direct = new int[iHierarchy.getSize()];
+		DirectTypes counter = new DirectTypes(iHierarchy);
+		for (int[] aTypes : iTypes) {
+			counter.count(aTypes, direct);
+		}
+		return direct;
+	}
+
+	/**
+	 * Finds the direct types of individuals, the types that are not a superclass
+	 * (transitively) of another type of the same individual. The superclasses
+	 * are marked in a bit set of the hierarchy, which is kept for the next
+	 * individual, so an individual costs only its types and their superclasses.
+	 */
+	static final class DirectTypes {
+		private final CompactHierarchy hierarchy;
+		private final BitSet ancestors;
+		private int[] stack = new int[16];
+		private int[] marks = new int[16];
+
+		DirectTypes(final CompactHierarchy iHierarchy) {
+			this.hierarchy = iHierarchy;
+			this.ancestors = new BitSet(iHierarchy.getSize());
+		}
+
+		CompactHierarchy getHierarchy() {
+			return hierarchy;
+		}
+
+		/**
+		 * @param iTypes
+		 *            ids of the types of an individual, the first element is the
+		 *            number of types, null for none
+		 * @param iDirect
+		 *            number of direct individuals per concept id, incremented
+		 *            for the direct types, null to count only
+		 * @return number of direct types
+		 */
+		int count(final int[] iTypes, final int[] iDirect) {
+			if (iTypes == null)
+				return 0;
+			if (iTypes[0] == 1) {
+				if (iDirect != null)
+					iDirect[iTypes[1]]++;
+				return 1;
+			}
+			// mark the superclasses of all types, then clear only the marked bits
+			int marked = 0;
+			for (int i = 1; i <= iTypes[0]; i++) {
+				int top = 0;
+				stack[top++] = iTypes[i];
+				while (top > 0) {
+					int c = stack[--top];
+					for (int k = 0; k < hierarchy.getSuperClassCount(c); k++) {
+						int sup = hierarchy.getSuperClass(c, k);
+						if (!ancestors.get(sup)) {
+							ancestors.set(sup);
+							if (marked == marks.length)
+								marks = Arrays.copyOf(marks, 2 * marked);
+							marks[marked++] = sup;
+							if (top == stack.length)
+								stack = Arrays.copyOf(stack, 2 * top);
+							stack[top++] = sup;
+						}
+					}
+				}
+			}
+			int n = 0;
+			for (int i = 1; i <= iTypes[0]; i++) {
+				if (!ancestors.get(iTypes[i])) {
+					n++;
+					if (iDirect != null)
+						iDirect[iTypes[i]]++;
+				}
+			}
+			for (int i = 0; i < marked; i++) {
+				ancestors.clear(marks[i]);
+			}
+			return n;
+		}
+	}
+
+	private static int[] add(final int[] iTypes, final int iType) {
+		if (iTypes == null)
+			return new int[] { 1, iType };
+		for (int i = 1; i <= iTypes[0]; i++) {
+			if (iTypes[i] == iType)
+				return iTypes; // the same statement in several graphs or streamed twice
+		}
+		int[] types = (iTypes[0] + 1 == iTypes.length) ? Arrays.copyOf(iTypes, 2 * iTypes.length) : iTypes;
+		types[++types[0]] = iType;
+		return types;
 	}
 
 }
\ No newline at end of file
@@ -14,20 +14,70 @@
  */
 package ontology.metrics;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.log4j.LogManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Main class for ontology evaluation. The metrics string controls execution of
- * individual metrics.
+ * Main class for ontology evaluation. The metrics string (or the option
+ * -metrics with a comma separated list of metric names) controls execution of
+ * individual metrics. Independent metrics are run concurrently, the number of
+ * threads can be set with the option -threads (default: number of available
+ * processors), e.g. "-threads 4 resources/Pizza.owl".
+ * 
+ * With the option -stream the triples are evaluated directly from the parser
+ * without building an ontology model (see {@link StreamingEvaluation}); the
+ * file name "-" reads from the standard input in the syntax given with -lang
+ * (default N-Triples). The option -base sets the base namespace for inputs
+ * without prefix declarations. N-Triples and N-Quads files are parsed in
+ * parallel (see {@link ChunkedLoader}).
+ * 
+ * With the option -batch a directory, a glob pattern (e.g. "resources/*.owl",
+ * wildcards in any segment of the path) or a list file ("@list.txt", one file
+ * per line) is evaluated, several ontologies at once (see
+ * {@link BatchEvaluation}). One CSV row per ontology is written to the standard
+ * output or to the file given with -out.
+ * 
+ * An unknown option or syntax name stops the program with the usage message
+ * and the exit status 2.
+ * 
+ * With the option -cache directory the results of unchanged ontology files are
+ * taken from a cache on the disk (see {@link ResultCache}); -cacheSize sets its
+ * size in MB (default 256).
+ * 
+ * With the option -patch file (repeatable) the ontology is read once into a
+ * graph and then changed by the RDF Patch files in the given order, the results
+ * are logged after every patch (see {@link IncrementalEvaluation}).
+ * 
+ * With the option -report file the wall time, CPU time, allocated bytes and
+ * heap usage of the parsing, the index build, every intermediate and every
+ * metric are appended to the file, one JSON object per evaluated ontology (see
+ * {@link Instrumentation}).
  * 
  * @author Andrej Tibaut
  *
@@ -39,45 +89,387 @@ public class CalculateMetrics {
 			"NOMOnto", "RROnto", "PROnto", "AROnto", "INROnto", "CROnto", "ANOnto", "TMOnto2", "CPOnto", "AGOnto",
 			"EXOnto" };
 
+	private static final String USAGE = "Usage: CalculateMetrics [options] (ontology file | -)\n"
+			+ "       CalculateMetrics [options] -batch (directory | glob | @list.txt) [-out file]\n"
+			+ "Options:\n" //
+			+ "  -threads n         number of threads (default: available processors)\n"
+			+ "  -metrics a,b       comma separated metric names\n"
+			+ "  -stream            evaluate the triples without an ontology model\n"
+			+ "  -lang name         syntax of the standard input, e.g. N-Triples, Turtle\n"
+			+ "  -base namespace    base namespace of inputs without prefixes\n"
+			+ "  -cache directory   results cache, -cacheSize MB (default 256)\n"
+			+ "  -patch file        RDF Patch applied to the ontology (repeatable)\n"
+			+ "  -report file       appends the instrumentation report (JSON lines)";
+
+	private final int threads;
+	private final List<String> metricNames;
+	private final boolean stream;
+	private final Lang lang;
+	private final String baseNS;
+	private final ResultCache cache;
+	// instrumentation report, one JSON object per line
+	private PrintStream report;
+
 	public CalculateMetrics() {
+		this(Runtime.getRuntime().availableProcessors(), Arrays.asList(metrics), false, Lang.NTRIPLES, null, null);
+	}
 
+	/**
+	 * @param iThreads
+	 *            number of threads for the metrics and the parser
+	 * @param iMetricNames
+	 *            names of the metrics
+	 * @param iStream
+	 *            true for the streaming evaluation (no ontology model)
+	 * @param iLang
+	 *            RDF syntax of the standard input
+	 * @param iBaseNS
+	 *            base namespace, null to use the namespace with the empty prefix
+	 * @param iCache
+	 *            cache of the results of unchanged ontology files, null for no
+	 *            cache
+	 */
+	public CalculateMetrics(int iThreads, List<String> iMetricNames, boolean iStream, Lang iLang, String iBaseNS,
+			ResultCache iCache) {
+		this.threads = iThreads;
+		this.metricNames = iMetricNames;
+		this.stream = iStream;
+		this.lang = iLang;
+		this.baseNS = iBaseNS;
+		this.cache = iCache;
 	}
 
-	public static void main(String[] args) throws IOException {
+	public static void main(String[] args) throws IOException, InterruptedException {
 		logger.info("STARTED...");
-		if (args.length > 0) {
-			String ontFile = args[0];
-			OntModel ontologyModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM, null);
-			ontologyModel.read(ontFile, "RDF/XML-ABBREV");
-			// the checking mode must be set to non-strict to accept following calss
-			// definitions
-			// rdf:Description rdf:about="http://www.w3.org/2000/10/swap/pim/contact#Person"
-			ontologyModel.setStrictMode(false);
-			// gets URI from the namespace without prefix, e.g.
-			// xmlns="http://www.cidoc-crm.org/cidoc-crm/"
-			String nameSpace = ontologyModel.getNsPrefixURI("");
-			logger.info("Namespace without prefix: " + nameSpace);
-			// in case we want to access ontology metadata (imports etc.)
-			// Ontology ontology = ontologyModel.getOntology(nameSpace);
-			// gets the URI from ontology, e.g. <owl:Ontology
-			// rdf:about="http://www.cidoc-crm.org/cidoc-crm/">
-			// logger.info("Ontology URI: " + ontology.getURI());
-
-			for (String metric : metrics) {
-				Class<?> klas = null;
-				try {
-					klas = Class.forName("ontology.metrics." + metric);
-					Constructor<?> constructor = null;
-					constructor = klas.getConstructor(OntModel.class);
-					Object instance = constructor.newInstance(ontologyModel);
-				} catch (NoSuchMethodException | SecurityException | ClassNotFoundException | InstantiationException
-						| IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					e.printStackTrace();
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<String> metricNames = Arrays.asList(metrics);
+		boolean stream = false;
+		Lang lang = Lang.NTRIPLES;
+		String baseNS = null;
+		String batch = null;
+		String output = null;
+		String report = null;
+		ResultCache cache = null;
+		Path cacheDirectory = null;
+		long cacheSize = 256;
+		List<String> patches = new ArrayList<>();
+		String ontFile = null;
+		for (int i = 0; i < args.length; i++) {
+			if ("-threads".equals(args[i]) && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else if ("-metrics".equals(args[i]) && i + 1 < args.length) {
+				metricNames = Arrays.asList(args[++i].split(","));
+			} else if ("-stream".equals(args[i])) {
+				stream = true;
+			} else if ("-lang".equals(args[i]) && i + 1 < args.length) {
+				lang = RDFLanguages.nameToLang(args[++i]);
+				if (lang == null) {
+					usage("Unknown syntax: " + args[i]);
+					return;
 				}
+			} else if ("-base".equals(args[i]) && i + 1 < args.length) {
+				baseNS = args[++i];
+			} else if ("-batch".equals(args[i]) && i + 1 < args.length) {
+				batch = args[++i];
+			} else if ("-out".equals(args[i]) && i + 1 < args.length) {
+				output = args[++i];
+			} else if ("-cache".equals(args[i]) && i + 1 < args.length) {
+				cacheDirectory = Paths.get(args[++i]);
+			} else if ("-cacheSize".equals(args[i]) && i + 1 < args.length) {
+				cacheSize = Long.parseLong(args[++i]);
+			} else if ("-patch".equals(args[i]) && i + 1 < args.length) {
+				patches.add(args[++i]);
+			} else if ("-report".equals(args[i]) && i + 1 < args.length) {
+				report = args[++i];
+			} else if (args[i].startsWith("-") && !"-".equals(args[i])) {
+				usage("Unknown option or missing value: " + args[i]);
+				return;
+			} else {
+				ontFile = args[i];
 			}
 		}
+		if (cacheDirectory != null)
+			cache = new ResultCache(cacheDirectory, cacheSize << 20);
+		PrintStream reportOut = (report == null) ? null
+				: new PrintStream(new FileOutputStream(report, true), true, "UTF-8");
+		try {
+			run(threads, metricNames, stream, lang, baseNS, batch, output, cache, patches, ontFile, reportOut);
+		} finally {
+			if (reportOut != null)
+				reportOut.close();
+		}
 		logger.info("...FINISHED");
+		// flushes the asynchronous appender (log4j-async.xml), its thread is a
+		// daemon and would be stopped with the buffered messages
+		LogManager.shutdown();
+	}
+
+	/**
+	 * Reports the wrong argument and the usage, then exits with status 2.
+	 */
+	private static void usage(final String iError) {
+		logger.error(iError);
+		System.err.println(USAGE);
+		LogManager.shutdown();
+		System.exit(2);
+	}
+
+	private static void run(int threads, List<String> metricNames, boolean stream, Lang lang, String baseNS,
+			String batch, String output, ResultCache cache, List<String> patches, String ontFile, PrintStream report)
+			throws IOException, InterruptedException {
+		if (batch != null) {
+			// every ontology is evaluated by a single thread, the ontologies in
+			// parallel
+			CalculateMetrics evaluation = new CalculateMetrics(1, metricNames, stream, lang, baseNS, cache);
+			evaluation.setReport(report);
+			if (output == null) {
+				new BatchEvaluation(evaluation, threads).run(BatchEvaluation.resolve(batch), System.out);
+			} else {
+				try (PrintStream out = new PrintStream(new FileOutputStream(output), true, "UTF-8")) {
+					new BatchEvaluation(evaluation, threads).run(BatchEvaluation.resolve(batch), out);
+				}
+			}
+		} else if (ontFile != null && !patches.isEmpty()) {
+			// the graph of the ontology and its state are kept and changed by the
+			// patches
+			CalculateMetrics evaluation = new CalculateMetrics(threads, metricNames, true, lang, baseNS, null);
+			IncrementalEvaluation incremental = new IncrementalEvaluation(evaluation.read(ontFile), baseNS,
+					MetricRegistry.getMetrics(metricNames));
+			log(incremental.getResults());
+			for (String patch : patches) {
+				long start = System.currentTimeMillis();
+				incremental.apply(patch);
+				Map<String, MetricResult> results = incremental.getResults();
+				logger.info("Metrics after " + patch + " in " + (System.currentTimeMillis() - start) + " ms");
+				log(results);
+			}
+		} else if (ontFile != null) {
+			CalculateMetrics evaluation = new CalculateMetrics(threads, metricNames, stream, lang, baseNS, cache);
+			evaluation.setReport(report);
+			log(evaluation.evaluate(ontFile));
+		}
+	}
+
+	private static void log(final Map<String, MetricResult> iResults) {
+		logger.info("*********************************************");
+		for (MetricResult result : iResults.values()) {
+			logger.info(result.toString());
+		}
+		logger.info("*********************************************");
+	}
+
+	/**
+	 * @return names of the metrics to compute
+	 */
+	public List<String> getMetricNames() {
+		return metricNames;
+	}
+
+	/**
+	 * @return true for the streaming evaluation (no ontology model)
+	 */
+	public boolean isStream() {
+		return stream;
+	}
+
+	/**
+	 * @param iReport
+	 *            stream for the instrumentation report (one JSON object per
+	 *            evaluated ontology), null for no report
+	 */
+	public void setReport(final PrintStream iReport) {
+		this.report = iReport;
+	}
+
+	/**
+	 * Evaluates one ontology.
+	 * 
+	 * @param iFile
+	 *            file name, URL or "-" for the standard input
+	 * @return results of the metrics that succeeded
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public Map<String, MetricResult> evaluate(final String iFile) throws IOException, InterruptedException {
+		Instrumentation instrumentation = new Instrumentation(iFile);
+		Map<String, MetricResult> results = evaluate(iFile, instrumentation);
+		if (report != null) {
+			// one report at a time
+			synchronized (report) {
+				instrumentation.write(report, results);
+				report.println();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Evaluates one ontology, the parsing, the index build, every intermediate
+	 * and every metric are measured by the instrumentation.
+	 * 
+	 * @param iFile
+	 *            file name, URL or "-" for the standard input
+	 * @param iInstrumentation
+	 *            instrumentation of the evaluation
+	 * @return results of the metrics that succeeded
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public Map<String, MetricResult> evaluate(final String iFile, final Instrumentation iInstrumentation)
+			throws IOException, InterruptedException {
+		// only local files are cached
+		boolean cached = cache != null && !"-".equals(iFile) && Files.isRegularFile(Paths.get(iFile));
+		String mode = (stream ? "stream" : "model") + "," + baseNS;
+		List<String> expected = getComputedMetricNames();
+		if (cached) {
+			Instrumentation.Span span = iInstrumentation.start(Instrumentation.PHASE, "cache");
+			Map<String, MetricResult> results = cache.get(iFile, metricNames, mode);
+			// an entry without all results is a miss
+			boolean hit = results != null && results.keySet().containsAll(expected);
+			span.end(hit);
+			if (hit)
+				return results;
+		}
+
+		Map<String, MetricResult> results = compute(iFile, iInstrumentation);
+		if (cached) {
+			// the imported documents are not part of the key
+			if (!results.keySet().containsAll(expected))
+				logger.info("Results of " + iFile + " not cached, a metric failed");
+			else if (iInstrumentation.getImports() > 0)
+				logger.info("Results of " + iFile + " not cached, the ontology has imports");
+			else
+				cache.put(iFile, metricNames, mode, results);
+		}
+		return results;
+	}
+
+	/**
+	 * @return names of the metrics computed in the mode, the streaming mode
+	 *         skips the metrics without streaming support
+	 */
+	private List<String> getComputedMetricNames() {
+		List<String> names = new ArrayList<>();
+		for (OntologyMetric metric : MetricRegistry.getMetrics(metricNames)) {
+			if (!stream || metric instanceof StreamingMetric)
+				names.add(metric.getName());
+		}
+		return names;
+	}
+
+	private Map<String, MetricResult> compute(final String iFile, final Instrumentation iInstrumentation)
+			throws IOException, InterruptedException {
+		if (stream) {
+			TripleMetricState state;
+			Instrumentation.Span span = iInstrumentation.start(Instrumentation.PHASE, "parse");
+			boolean ok = false;
+			try {
+				state = parse(iFile);
+				iInstrumentation.setOntology(null, state.getTripleCount(), -1);
+				ok = true;
+			} finally {
+				span.end(ok);
+			}
+			return StreamingEvaluation.run(state, MetricRegistry.getMetrics(metricNames), iInstrumentation);
+		}
+
+		OntModel ontologyModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM, null);
+		Instrumentation.Span span = iInstrumentation.start(Instrumentation.PHASE, "parse");
+		boolean ok = false;
+		try {
+			if ("-".equals(iFile)) {
+				ontologyModel.read(System.in, baseNS, lang.getName());
+			} else if (ChunkedLoader.isLineBased(iFile)) {
+				// N-Triples and N-Quads are parsed in parallel chunks
+				new ChunkedLoader(threads).read(iFile, ontologyModel.getGraph());
+				ontologyModel.loadImports();
+			} else {
+				ontologyModel.read(iFile, "RDF/XML-ABBREV");
+			}
+			describe(ontologyModel, iInstrumentation);
+			ok = true;
+		} finally {
+			span.end(ok);
+		}
+		// the checking mode must be set to non-strict to accept following calss
+		// definitions
+		// rdf:Description rdf:about="http://www.w3.org/2000/10/swap/pim/contact#Person"
+		ontologyModel.setStrictMode(false);
+		// gets URI from the namespace without prefix, e.g.
+		// xmlns="http://www.cidoc-crm.org/cidoc-crm/"
+		String nameSpace = ontologyModel.getNsPrefixURI("");
+		logger.info("Namespace without prefix: " + nameSpace);
+		// in case we want to access ontology metadata (imports etc.)
+		// Ontology ontology = ontologyModel.getOntology(nameSpace);
+		// gets the URI from ontology, e.g. <owl:Ontology
+		// rdf:about="http://www.cidoc-crm.org/cidoc-crm/">
+		// logger.info("Ontology URI: " + ontology.getURI());
+
+		// the concepts, the hierarchy and the other intermediate results are
+		// collected only once and shared by all metrics
+		OntologyIndex index = new OntologyIndex(ontologyModel);
+
+		// the index is built by the intermediates (see Intermediate)
+		return new MetricScheduler(threads).run(index, MetricRegistry.getMetrics(metricNames), iInstrumentation);
+	}
+
+	/**
+	 * Ontology IRI, number of triples (including the imports), number of
+	 * declared named classes and number of imported ontologies of the loaded
+	 * model, without building the index.
+	 */
+	private static void describe(final OntModel iOntologyModel, final Instrumentation iInstrumentation) {
+		Graph graph = iOntologyModel.getGraph();
+		String iri = null;
+		ExtendedIterator<Triple> ontologies = graph.find(Node.ANY, RDF.type.asNode(), OWL.Ontology.asNode());
+		try {
+			while (iri == null && ontologies.hasNext()) {
+				Node ontology = ontologies.next().getSubject();
+				if (ontology.isURI())
+					iri = ontology.getURI();
+			}
+		} finally {
+			ontologies.close();
+		}
+		int concepts = 0;
+		ExtendedIterator<Triple> classes = graph.find(Node.ANY, RDF.type.asNode(), OWL.Class.asNode());
+		try {
+			while (classes.hasNext()) {
+				if (classes.next().getSubject().isURI())
+					concepts++;
+			}
+		} finally {
+			classes.close();
+		}
+		iInstrumentation.setOntology(iri, graph.size(), concepts);
+		iInstrumentation.setImports(iOntologyModel.listImportedOntologyURIs(true).size());
+	}
+
+	/**
+	 * Reads the ontology into a graph, without the imports.
+	 */
+	private Graph read(final String iFile) throws IOException, InterruptedException {
+		Graph graph = GraphFactory.createDefaultGraph();
+		if ("-".equals(iFile))
+			RDFDataMgr.read(graph, System.in, baseNS, lang);
+		else if (ChunkedLoader.isLineBased(iFile))
+			new ChunkedLoader(threads).read(iFile, graph);
+		else
+			RDFDataMgr.read(graph, iFile);
+		return graph;
+	}
 
+	/**
+	 * Streams the ontology, only the statistics needed by the metrics are kept,
+	 * not the triples.
+	 */
+	private TripleMetricState parse(final String iFile) throws IOException, InterruptedException {
+		if ("-".equals(iFile))
+			return StreamingEvaluation.parse(System.in, lang, baseNS);
+		else if (ChunkedLoader.isLineBased(iFile))
+			return new ChunkedLoader(threads).parse(iFile, baseNS);
+		else
+			return StreamingEvaluation.parse(iFile, baseNS);
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.lang.LabelToNode;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parallel loader for line based RDF (N-Triples, N-Quads). The file is memory
+ * mapped, split into chunks at line boundaries and the chunks are parsed
+ * concurrently. Every chunk is parsed into its own sink, the sinks are then
+ * passed to the caller (e.g. to merge per chunk {@link TripleMetricState}s or
+ * to add the triples to a graph). At most two chunks per thread are parsed or
+ * waiting for the caller at a time, so the parsed chunks do not accumulate in
+ * memory.
+ * 
+ * Blank node labels are mapped to nodes with the same document scope in every
+ * chunk, so a label used in two chunks is the same blank node.
+ */
+public class ChunkedLoader {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	// chunk size limits, a mapped buffer can not exceed 2 GB
+	private static final long MIN_CHUNK = 1L << 20;
+	private static final long MAX_CHUNK = 1L << 30;
+	private static final int CHUNKS_PER_THREAD = 4;
+	// parsed or parsing chunks not yet passed to the consumer, per thread
+	private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+	private final int parallelism;
+
+	public ChunkedLoader(final int iParallelism) {
+		this.parallelism = Math.max(1, iParallelism);
+	}
+
+	/**
+	 * @param iFile
+	 *            file name
+	 * @return true if the file is N-Triples or N-Quads (by file extension)
+	 */
+	public static boolean isLineBased(final String iFile) {
+		Lang lang = RDFLanguages.filenameToLang(iFile);
+		return RDFLanguages.NTRIPLES.equals(lang) || RDFLanguages.NQUADS.equals(lang);
+	}
+
+	/**
+	 * Parses the file into a {@link TripleMetricState} (streaming evaluation).
+	 * 
+	 * @param iFile
+	 *            N-Triples or N-Quads file
+	 * @param iBaseNS
+	 *            base namespace, null if unknown
+	 * @return statistics of the triples of all chunks
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public TripleMetricState parse(final String iFile, final String iBaseNS)
+			throws IOException, InterruptedException {
+		final TripleMetricState state = new TripleMetricState(iBaseNS);
+		long start = System.currentTimeMillis();
+		parse(iFile, () -> new StreamingEvaluation(new TripleMetricState(iBaseNS)),
+				chunk -> state.merge(chunk.getState()));
+		logger.info("Streamed " + state.getTripleCount() + " triples in " + (System.currentTimeMillis() - start)
+				+ " ms");
+		return state;
+	}
+
+	/**
+	 * Reads the file into the graph. The chunks are parsed concurrently, the
+	 * triples of a chunk are added to the graph by the calling thread as soon as
+	 * the chunk is parsed.
+	 * 
+	 * @param iFile
+	 *            N-Triples or N-Quads file
+	 * @param iGraph
+	 *            graph to add the triples to
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void read(final String iFile, final Graph iGraph) throws IOException, InterruptedException {
+		long start = System.currentTimeMillis();
+		parse(iFile, TripleCollector::new, chunk -> {
+			for (Triple t : chunk.triples) {
+				iGraph.add(t);
+			}
+		}, false);
+		logger.info("Read " + iGraph.size() + " triples in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * Parses the chunks of the file concurrently.
+	 * 
+	 * @param iFile
+	 *            N-Triples or N-Quads file
+	 * @param iSinks
+	 *            creates a sink for each chunk
+	 * @param iConsumer
+	 *            receives the sinks in the order of the chunks
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public <S extends StreamRDF> void parse(final String iFile, final Supplier<S> iSinks,
+			final Consumer<S> iConsumer) throws IOException, InterruptedException {
+		parse(iFile, iSinks, iConsumer, true);
+	}
+
+	/**
+	 * @param iInOrder
+	 *            true to pass the sinks in the order of the chunks, false to pass
+	 *            them in the order of completion
+	 */
+	private <S extends StreamRDF> void parse(final String iFile, final Supplier<S> iSinks,
+			final Consumer<S> iConsumer, final boolean iInOrder) throws IOException, InterruptedException {
+		final Lang lang = RDFLanguages.filenameToLang(iFile, RDFLanguages.NTRIPLES);
+		// the same scope for all chunks: a blank node label is the same node in
+		// every chunk
+		final UUID scope = UUID.randomUUID();
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		// completed chunks in the order of completion (not used in order)
+		CompletionService<S> completed = new ExecutorCompletionService<>(executor);
+		final int window = parallelism * CHUNKS_IN_FLIGHT_PER_THREAD;
+		try (FileChannel channel = FileChannel.open(Paths.get(iFile), StandardOpenOption.READ)) {
+			List<long[]> chunks = split(channel);
+			logger.info("Parsing " + iFile + " in " + chunks.size() + " chunks with " + parallelism + " threads");
+
+			// submitted chunks not yet passed to the consumer, in the order of the
+			// chunks
+			Deque<Future<S>> pending = new ArrayDeque<>();
+			for (long[] chunk : chunks) {
+				if (pending.size() == window)
+					consume(pending, completed, iConsumer, iInOrder);
+				final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0],
+						chunk[1] - chunk[0]);
+				Callable<S> task = () -> {
+					S sink = iSinks.get();
+					RDFParser.create().source(new ByteBufferInputStream(buffer)).lang(lang)
+							.labelToNode(LabelToNode.createScopeByDocumentHash(scope)).parse(sink);
+					return sink;
+				};
+				pending.add(iInOrder ? executor.submit(task) : completed.submit(task));
+			}
+			while (!pending.isEmpty()) {
+				consume(pending, completed, iConsumer, iInOrder);
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for the first chunk (or for any chunk if not in order) and passes its
+	 * sink to the consumer.
+	 */
+	private static <S> void consume(final Deque<Future<S>> iPending, final CompletionService<S> iCompleted,
+			final Consumer<S> iConsumer, final boolean iInOrder) throws InterruptedException, ExecutionException {
+		Future<S> chunk;
+		if (iInOrder) {
+			chunk = iPending.removeFirst();
+		} else {
+			chunk = iCompleted.take();
+			iPending.remove(chunk);
+		}
+		iConsumer.accept(chunk.get());
+	}
+
+	/**
+	 * Splits the file into chunks ending at a line boundary.
+	 * 
+	 * @return start (inclusive) and end (exclusive) offsets of the chunks
+	 */
+	private List<long[]> split(final FileChannel iChannel) throws IOException {
+		long size = iChannel.size();
+		long chunkSize = Math.min(MAX_CHUNK,
+				Math.max(MIN_CHUNK, (size + parallelism * CHUNKS_PER_THREAD - 1) / (parallelism * CHUNKS_PER_THREAD)));
+
+		List<long[]> chunks = new ArrayList<>();
+		long start = 0;
+		while (start < size) {
+			long end = nextLine(iChannel, Math.min(size, start + chunkSize));
+			if (end - start > Integer.MAX_VALUE)
+				throw new IOException("Line too long at offset " + start);
+			chunks.add(new long[] { start, end });
+			start = end;
+		}
+		return chunks;
+	}
+
+	/**
+	 * @return offset after the first newline at or after the position, or the
+	 *         file size
+	 */
+	private static long nextLine(final FileChannel iChannel, final long iPosition) throws IOException {
+		long size = iChannel.size();
+		long position = iPosition;
+		while (position < size) {
+			MappedByteBuffer window = iChannel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(MIN_CHUNK, size - position));
+			while (window.hasRemaining()) {
+				position++;
+				if (window.get() == '\n')
+					return position;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Reads a (memory mapped) byte buffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(final ByteBuffer iBuffer) {
+			this.buffer = iBuffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+	/**
+	 * Collects the triples of a chunk (quads are added to the default graph).
+	 */
+	private static class TripleCollector extends StreamRDFBase {
+		final List<Triple> triples = new ArrayList<>();
+
+		@Override
+		public void triple(Triple triple) {
+			triples.add(triple);
+		}
+
+		@Override
+		public void quad(Quad quad) {
+			triples.add(quad.asTriple());
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.jena.graph.Node;
+
+/**
+ * Counts the property usages in class expressions (owl:Restriction,
+ * owl:intersectionOf, owl:unionOf and the RDF lists behind them). A class
+ * expression is a blank node, its usages are the named resources reachable
+ * over blank nodes:
+ * 
+ * <pre>
+ * count(R) = 1 if R is a used property, 0 otherwise     for a named resource R
+ * count(B) = ∑count(O) over the objects O of B           for a blank node B
+ * </pre>
+ * 
+ * The count of every node is memoized, so an expression shared by several
+ * concepts is walked only once. The walk uses an explicit stack, long RDF lists
+ * do not exhaust the call stack. A blank node that is already on the current
+ * path (malformed cyclic structure) is not followed, so the count of a node on
+ * a cycle depends on where the cycle was entered.
+ */
+final class ClassExpressionWalker {
+
+	// resource (non-literal) objects of a node
+	private final Function<Node, Iterator<Node>> objects;
+	private final Predicate<Node> property;
+
+	private final Map<Node, Long> counts = new HashMap<>();
+
+	/**
+	 * @param iObjects
+	 *            resource (non-literal) objects of a node
+	 * @param iProperty
+	 *            tests if a named resource is a used property
+	 */
+	ClassExpressionWalker(final Function<Node, Iterator<Node>> iObjects, final Predicate<Node> iProperty) {
+		this.objects = iObjects;
+		this.property = iProperty;
+	}
+
+	/**
+	 * Counts the property usages in the class expressions of the subject, named
+	 * objects of the subject itself are not counted.
+	 * 
+	 * @param iSubject
+	 *            a concept or an individual
+	 * @return number of property usages
+	 */
+	long countExpressions(final Node iSubject) {
+		long n = 0;
+		Iterator<Node> it = objects.apply(iSubject);
+		while (it.hasNext()) {
+			Node o = it.next();
+			if (o.isBlank())
+				n += count(o);
+		}
+		return n;
+	}
+
+	/**
+	 * @param iNode
+	 *            a named resource or a blank node
+	 * @return number of property usages reachable from the node
+	 */
+	long count(final Node iNode) {
+		Long known = counts.get(iNode);
+		if (known != null)
+			return known;
+		if (!iNode.isBlank())
+			return countNamed(iNode);
+
+		// blank nodes on the current path with their iterators and partial sums
+		Set<Node> path = new HashSet<>();
+		Deque<Node> nodes = new ArrayDeque<>();
+		Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+		long[] sums = new long[16];
+		path.add(iNode);
+		nodes.push(iNode);
+		iterators.push(objects.apply(iNode));
+		while (true) {
+			Iterator<Node> it = iterators.peek();
+			if (it.hasNext()) {
+				Node o = it.next();
+				known = counts.get(o);
+				if (known != null) {
+					sums[nodes.size() - 1] += known;
+				} else if (!o.isBlank()) {
+					sums[nodes.size() - 1] += countNamed(o);
+				} else if (path.add(o)) {
+					if (nodes.size() == sums.length)
+						sums = Arrays.copyOf(sums, sums.length * 2);
+					sums[nodes.size()] = 0;
+					nodes.push(o);
+					iterators.push(objects.apply(o));
+				}
+			} else {
+				Node done = nodes.pop();
+				iterators.pop();
+				path.remove(done);
+				long sum = sums[nodes.size()];
+				counts.put(done, sum);
+				if (nodes.isEmpty())
+					return sum;
+				sums[nodes.size() - 1] += sum;
+			}
+		}
+	}
+
+	private long countNamed(final Node iNode) {
+		long n = property.test(iNode) ? 1 : 0;
+		counts.put(iNode, n);
+		return n;
+	}
+
+}
@@ -0,0 +1,655 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subsumption hierarchy stored in int arrays. Classes are identified by a dense
+ * id (0..getSize()-1); the direct sub- and superclasses are kept in compressed
+ * sparse row (CSR) form, an offset array and a target array per direction, and
+ * the declared, leaf and root classes in bitsets. A class costs a few ints
+ * instead of Jena wrappers, lists and map entries, and traversals walk
+ * contiguous arrays.
+ * 
+ * In the streaming evaluation the hierarchy contains the declared classes
+ * (rdf:type owl:Class, rdfs:Class or owl:Restriction, named and anonymous) and
+ * every class used in an rdfs:subClassOf statement. Roots are declared classes
+ * without a superclass (other than owl:Thing), leafs are declared classes
+ * without subclasses. The {@link OntologyIndex} builds the hierarchy of an
+ * ontology model from the direct sub- and superclasses of Jena, with the
+ * classes of listClasses() as declared classes and listHierarchyRootClasses()
+ * as roots.
+ */
+public class CompactHierarchy {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final List<Node> nodes;
+	private final BitSet declared;
+	private final BitSet leafs;
+	private final BitSet rootFlags;
+	private final int[] roots;
+
+	// direct subclasses of c: subTargets[subOffsets[c]..subOffsets[c+1]-1],
+	// superclasses likewise
+	private final int[] subOffsets;
+	private final int[] subTargets;
+	private final int[] supOffsets;
+	private final int[] supTargets;
+
+	// per class number and length sum of the paths down to a leaf, computed on
+	// first use; valid values are reused from the previous hierarchy. Counts
+	// are kept in long arithmetic until one overflows.
+	private long[] counts;
+	private long[] sums;
+	private BigInteger[] bigCounts;
+	private BigInteger[] bigSums;
+	private final boolean[] valid;
+	private boolean computed;
+
+	private BigInteger pathCount;
+	private BigInteger pathLengthSum;
+
+	// per class depth (longest path from Thing, 0 if not reachable from a
+	// root), computed on first use
+	private int[] depths;
+	private int maxDepth;
+	private List<Node> longestPath;
+
+	/**
+	 * @param iNodes
+	 *            class nodes
+	 * @param iDeclared
+	 *            true for the classes declared with rdf:type
+	 * @param iEdges
+	 *            rdfs:subClassOf edges, (subclass << 32) | superclass
+	 */
+	public CompactHierarchy(final List<Node> iNodes, final boolean[] iDeclared, final Collection<Long> iEdges) {
+		this(iNodes, iDeclared, iEdges, null, null, Collections.<Integer>emptySet());
+	}
+
+	/**
+	 * Creates the hierarchy after a change of the previous hierarchy. The path
+	 * statistics of the previous hierarchy are reused except for the changed
+	 * classes and their ancestors, so only the affected region is computed
+	 * again.
+	 * 
+	 * @param iNodes
+	 *            class nodes, the previous nodes keep their positions
+	 * @param iDeclared
+	 *            true for the classes declared with rdf:type
+	 * @param iEdges
+	 *            rdfs:subClassOf edges, (subclass << 32) | superclass
+	 * @param iRoots
+	 *            root classes, null for the declared classes without a
+	 *            superclass
+	 * @param iPrevious
+	 *            the hierarchy before the change, null if none
+	 * @param iChanged
+	 *            classes whose direct subclasses changed
+	 */
+	public CompactHierarchy(final List<Node> iNodes, final boolean[] iDeclared, final Collection<Long> iEdges,
+			final int[] iRoots, final CompactHierarchy iPrevious, final Collection<Integer> iChanged) {
+		long start = System.currentTimeMillis();
+
+		int n = iNodes.size();
+		this.nodes = Collections.unmodifiableList(new ArrayList<>(iNodes));
+		this.declared = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			if (iDeclared[i])
+				declared.set(i);
+		}
+
+		// an edge is stored at the end of the free range of its class, so the
+		// edges of a class are in reverse order of the collection
+		this.subOffsets = new int[n + 1];
+		this.supOffsets = new int[n + 1];
+		for (long edge : iEdges) {
+			supOffsets[(int) (edge >>> 32) + 1]++;
+			subOffsets[(int) edge + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			subOffsets[i + 1] += subOffsets[i];
+			supOffsets[i + 1] += supOffsets[i];
+		}
+		this.subTargets = new int[iEdges.size()];
+		this.supTargets = new int[iEdges.size()];
+		int[] subEnd = Arrays.copyOfRange(subOffsets, 1, n + 1);
+		int[] supEnd = Arrays.copyOfRange(supOffsets, 1, n + 1);
+		for (long edge : iEdges) {
+			int sub = (int) (edge >>> 32);
+			int sup = (int) edge;
+			supTargets[--supEnd[sub]] = sup;
+			subTargets[--subEnd[sup]] = sub;
+		}
+
+		if (iRoots == null) {
+			int nRoots = 0;
+			int[] r = new int[n];
+			for (int i = declared.nextSetBit(0); i >= 0; i = declared.nextSetBit(i + 1)) {
+				if (supOffsets[i] == supOffsets[i + 1])
+					r[nRoots++] = i;
+			}
+			this.roots = Arrays.copyOf(r, nRoots);
+		} else {
+			this.roots = iRoots;
+		}
+
+		this.leafs = leafs(declared, subOffsets);
+		this.rootFlags = flags(roots, n);
+		this.valid = new boolean[n];
+		if (iPrevious != null)
+			reuse(iPrevious, iChanged);
+
+		logger.info("Compact hierarchy built in " + (System.currentTimeMillis() - start) + " ms (classes: " + n
+				+ ", subclass edges: " + iEdges.size() + ")");
+	}
+
+	/**
+	 * Creates the hierarchy from adjacency arrays in CSR form (used by
+	 * {@link OntologyIndex}). The sub- and superclasses are given separately,
+	 * they need not be the transposition of each other.
+	 * 
+	 * @param iNodes
+	 *            class nodes
+	 * @param iDeclared
+	 *            declared classes
+	 * @param iSubOffsets
+	 *            offsets of the direct subclasses, size + 1 elements
+	 * @param iSubTargets
+	 *            direct subclasses
+	 * @param iSupOffsets
+	 *            offsets of the direct superclasses, size + 1 elements
+	 * @param iSupTargets
+	 *            direct superclasses
+	 * @param iRoots
+	 *            root classes in the order of the traversal
+	 */
+	CompactHierarchy(final List<Node> iNodes, final BitSet iDeclared, final int[] iSubOffsets,
+			final int[] iSubTargets, final int[] iSupOffsets, final int[] iSupTargets, final int[] iRoots) {
+		int n = iNodes.size();
+		this.nodes = Collections.unmodifiableList(new ArrayList<>(iNodes));
+		this.declared = iDeclared;
+		this.subOffsets = iSubOffsets;
+		this.subTargets = iSubTargets;
+		this.supOffsets = iSupOffsets;
+		this.supTargets = iSupTargets;
+		this.roots = iRoots;
+		this.leafs = leafs(declared, subOffsets);
+		this.rootFlags = flags(roots, n);
+		this.valid = new boolean[n];
+	}
+
+	private static BitSet leafs(final BitSet iDeclared, final int[] iSubOffsets) {
+		BitSet leafs = new BitSet(iSubOffsets.length - 1);
+		for (int i = iDeclared.nextSetBit(0); i >= 0; i = iDeclared.nextSetBit(i + 1)) {
+			if (iSubOffsets[i] == iSubOffsets[i + 1])
+				leafs.set(i);
+		}
+		return leafs;
+	}
+
+	private static BitSet flags(final int[] iClasses, final int iSize) {
+		BitSet flags = new BitSet(iSize);
+		for (int c : iClasses) {
+			flags.set(c);
+		}
+		return flags;
+	}
+
+	/**
+	 * @return number of classes
+	 */
+	public int getSize() {
+		return nodes.size();
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return the RDF node of the class
+	 */
+	public Node getNode(final int iClass) {
+		return nodes.get(iClass);
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return true if the class is declared with rdf:type
+	 */
+	public boolean isDeclared(final int iClass) {
+		return declared.get(iClass);
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return true if the class is a declared named class (a concept)
+	 */
+	public boolean isNamedConcept(final int iClass) {
+		return declared.get(iClass) && nodes.get(iClass).isURI();
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return true if the class is declared and has no subclasses
+	 */
+	public boolean isLeaf(final int iClass) {
+		return leafs.get(iClass);
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return true if the class is a root class
+	 */
+	public boolean isRoot(final int iClass) {
+		return rootFlags.get(iClass);
+	}
+
+	/**
+	 * @return number of leaf classes
+	 */
+	public int getLeafCount() {
+		return leafs.cardinality();
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return number of direct subclasses of the class
+	 */
+	public int getSubClassCount(final int iClass) {
+		return subOffsets[iClass + 1] - subOffsets[iClass];
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @param iIndex
+	 *            0..getSubClassCount(iClass)-1
+	 * @return the direct subclass at the index
+	 */
+	public int getSubClass(final int iClass, final int iIndex) {
+		return subTargets[subOffsets[iClass] + iIndex];
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @return number of direct superclasses of the class
+	 */
+	public int getSuperClassCount(final int iClass) {
+		return supOffsets[iClass + 1] - supOffsets[iClass];
+	}
+
+	/**
+	 * @param iClass
+	 *            a class
+	 * @param iIndex
+	 *            0..getSuperClassCount(iClass)-1
+	 * @return the direct superclass at the index
+	 */
+	public int getSuperClass(final int iClass, final int iIndex) {
+		return supTargets[supOffsets[iClass] + iIndex];
+	}
+
+	/**
+	 * @return root classes (read-only)
+	 */
+	public int[] getRootConcepts() {
+		return roots;
+	}
+
+	/**
+	 * @return number of all paths from Thing to a leaf (over all roots)
+	 */
+	public synchronized BigInteger getPathCount() {
+		compute();
+		return pathCount;
+	}
+
+	/**
+	 * @return sum of lengths of all paths from Thing to a leaf (over all roots)
+	 */
+	public synchronized BigInteger getPathLengthSum() {
+		compute();
+		return pathLengthSum;
+	}
+
+	/**
+	 * @return length of the longest path from Thing to a leaf, 0 for a
+	 *         hierarchy without classes
+	 */
+	public synchronized int getMaxDepth() {
+		computeDepths();
+		return maxDepth;
+	}
+
+	/**
+	 * @param iClass
+	 *            a leaf class
+	 * @return depth (longest path from Thing) of the leaf, 0 if the class is
+	 *         not a leaf or not reachable from a root
+	 */
+	public synchronized int getLeafDepth(final int iClass) {
+		computeDepths();
+		return leafs.get(iClass) ? depths[iClass] : 0;
+	}
+
+	/**
+	 * @return one of the longest paths from Thing to a leaf (starting with the
+	 *         root concept, owl:Thing excluded), rebuilt from the predecessor
+	 *         pointers of the deepest leaf
+	 */
+	public synchronized List<Node> getLongestPath() {
+		computeDepths();
+		return longestPath;
+	}
+
+	/**
+	 * Divides two (possibly huge) counts.
+	 * 
+	 * @param iNumerator
+	 * @param iDenominator
+	 * @return quotient as double, NaN if both are 0
+	 */
+	public static double divide(final BigInteger iNumerator, final BigInteger iDenominator) {
+		if (iDenominator.signum() == 0)
+			return iNumerator.doubleValue() / 0.0;
+
+		return new BigDecimal(iNumerator).divide(new BigDecimal(iDenominator), MathContext.DECIMAL64).doubleValue();
+	}
+
+	/**
+	 * Takes the path statistics of the previous hierarchy, except for the changed
+	 * classes and all their ancestors.
+	 */
+	private void reuse(final CompactHierarchy iPrevious, final Collection<Integer> iChanged) {
+		synchronized (iPrevious) {
+			if (!iPrevious.computed)
+				return;
+			int n = Math.min(nodes.size(), iPrevious.nodes.size());
+			if (iPrevious.bigCounts != null) {
+				bigCounts = new BigInteger[nodes.size()];
+				bigSums = new BigInteger[nodes.size()];
+				System.arraycopy(iPrevious.bigCounts, 0, bigCounts, 0, n);
+				System.arraycopy(iPrevious.bigSums, 0, bigSums, 0, n);
+			} else {
+				counts = new long[nodes.size()];
+				sums = new long[nodes.size()];
+				System.arraycopy(iPrevious.counts, 0, counts, 0, n);
+				System.arraycopy(iPrevious.sums, 0, sums, 0, n);
+			}
+			System.arraycopy(iPrevious.valid, 0, valid, 0, n);
+		}
+
+		Deque<Integer> toVisit = new ArrayDeque<>(iChanged);
+		while (!toVisit.isEmpty()) {
+			int c = toVisit.poll();
+			if (c >= valid.length || !valid[c])
+				continue;
+			valid[c] = false;
+			for (int k = supOffsets[c]; k < supOffsets[c + 1]; k++) {
+				toVisit.add(supTargets[k]);
+			}
+		}
+	}
+
+	private void compute() {
+		if (computed)
+			return;
+
+		if (bigCounts == null) {
+			if (counts == null) {
+				counts = new long[nodes.size()];
+				sums = new long[nodes.size()];
+			}
+			try {
+				compute(false);
+			} catch (ArithmeticException e) {
+				logger.info("Path counts exceed long range, switching to BigInteger");
+				bigCounts = new BigInteger[nodes.size()];
+				bigSums = new BigInteger[nodes.size()];
+				for (int i = 0; i < valid.length; i++) {
+					if (valid[i]) {
+						bigCounts[i] = BigInteger.valueOf(counts[i]);
+						bigSums[i] = BigInteger.valueOf(sums[i]);
+					}
+				}
+				counts = null;
+				sums = null;
+			}
+		}
+		if (bigCounts != null)
+			compute(true);
+
+		BigInteger nPaths = BigInteger.ZERO;
+		BigInteger sPaths = BigInteger.ZERO;
+		for (int aRoot : roots) {
+			nPaths = nPaths.add(getCount(aRoot));
+			sPaths = sPaths.add(getSum(aRoot));
+		}
+		this.pathCount = nPaths;
+		this.pathLengthSum = sPaths;
+		this.computed = true;
+	}
+
+	/**
+	 * Longest paths from Thing with one longest-path pass over the classes
+	 * reachable from the roots in topological order, O(V+E). Besides the depth
+	 * of every class the pass keeps a predecessor pointer per class, from which
+	 * one longest path (witness) is rebuilt. An edge closing a cycle is
+	 * ignored.
+	 */
+	private void computeDepths() {
+		if (depths != null)
+			return;
+		long start = System.currentTimeMillis();
+
+		// classes reachable from the roots, every class after all of its
+		// subclasses
+		int n = nodes.size();
+		int[] order = new int[n];
+		int[] position = new int[n];
+		Arrays.fill(position, -1);
+		int size = 0;
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int[] next = new int[n];
+		for (int aRoot : roots) {
+			if (position[aRoot] >= 0 || onStack[aRoot])
+				continue;
+			int top = 0;
+			stack[top] = aRoot;
+			next[top] = subOffsets[aRoot];
+			onStack[aRoot] = true;
+			while (top >= 0) {
+				int c = stack[top];
+				if (next[top] < subOffsets[c + 1]) {
+					int subClass = subTargets[next[top]++];
+					if (!onStack[subClass] && position[subClass] < 0) {
+						onStack[subClass] = true;
+						stack[++top] = subClass;
+						next[top] = subOffsets[subClass];
+					}
+				} else {
+					position[c] = size;
+					order[size++] = c;
+					onStack[c] = false;
+					top--;
+				}
+			}
+		}
+
+		int[] depth = new int[n];
+		int[] predecessor = new int[n];
+		Arrays.fill(predecessor, -1);
+		for (int aRoot : roots) {
+			depth[aRoot] = 1;
+		}
+		for (int i = size - 1; i >= 0; i--) {
+			int c = order[i];
+			if (depth[c] == 0) {
+				// only reachable through the edge closing a cycle
+				depth[c] = 1;
+			}
+			for (int k = subOffsets[c]; k < subOffsets[c + 1]; k++) {
+				int subClass = subTargets[k];
+				// a later position only for the edge closing a cycle
+				if (position[subClass] < i && depth[c] + 1 > depth[subClass]) {
+					depth[subClass] = depth[c] + 1;
+					predecessor[subClass] = c;
+				}
+			}
+		}
+
+		int max = 0;
+		int deepestLeaf = -1;
+		for (int i = 0; i < size; i++) {
+			int c = order[i];
+			if (leafs.get(c) && depth[c] > max) {
+				max = depth[c];
+				deepestLeaf = c;
+			}
+		}
+		List<Node> path = new ArrayList<>(max);
+		for (int c = deepestLeaf; c >= 0; c = predecessor[c]) {
+			path.add(nodes.get(c));
+		}
+		Collections.reverse(path);
+
+		this.depths = depth;
+		this.maxDepth = max;
+		this.longestPath = Collections.unmodifiableList(path);
+		if (logger.isDebugEnabled())
+			logger.debug("Depths of " + size + " classes computed in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	private BigInteger getCount(final int iClass) {
+		return (bigCounts != null) ? bigCounts[iClass] : BigInteger.valueOf(counts[iClass]);
+	}
+
+	private BigInteger getSum(final int iClass) {
+		return (bigSums != null) ? bigSums[iClass] : BigInteger.valueOf(sums[iClass]);
+	}
+
+	/**
+	 * Iterative depth first search from the roots computing the path statistics
+	 * of every class not computed yet (post-order, every class after all of its
+	 * subclasses). An edge to a class on the stack closes a cycle and is
+	 * ignored.
+	 * 
+	 * @throws ArithmeticException
+	 *             if a count overflows in long arithmetic, the classes computed
+	 *             so far stay valid
+	 */
+	private void compute(final boolean iBig) {
+		int n = nodes.size();
+		int recomputed = 0;
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int[] next = new int[n];
+		for (int aRoot : roots) {
+			if (valid[aRoot])
+				continue;
+			int top = 0;
+			stack[top] = aRoot;
+			next[top] = subOffsets[aRoot];
+			onStack[aRoot] = true;
+			while (top >= 0) {
+				int c = stack[top];
+				if (next[top] < subOffsets[c + 1]) {
+					int subClass = subTargets[next[top]++];
+					if (onStack[subClass]) {
+						logger.warn("Cycle in the subsumption hierarchy at " + nodes.get(subClass));
+					} else if (!valid[subClass]) {
+						onStack[subClass] = true;
+						stack[++top] = subClass;
+						next[top] = subOffsets[subClass];
+					}
+				} else {
+					if (iBig)
+						computeBig(c);
+					else
+						computeLong(c);
+					valid[c] = true;
+					onStack[c] = false;
+					top--;
+					recomputed++;
+				}
+			}
+		}
+
+		if (logger.isDebugEnabled())
+			logger.debug("Path statistics of " + recomputed + " classes computed");
+	}
+
+	// a subclass still on the stack (not valid) closes a cycle
+	private void computeLong(final int iClass) {
+		long count = 0;
+		long sum = 0;
+		for (int k = subOffsets[iClass]; k < subOffsets[iClass + 1]; k++) {
+			int subClass = subTargets[k];
+			if (valid[subClass]) {
+				count = Math.addExact(count, counts[subClass]);
+				sum = Math.addExact(sum, Math.addExact(sums[subClass], counts[subClass]));
+			}
+		}
+		if (count == 0) {
+			// a leaf
+			count = 1;
+			sum = 1;
+		}
+		counts[iClass] = count;
+		sums[iClass] = sum;
+	}
+
+	private void computeBig(final int iClass) {
+		BigInteger count = BigInteger.ZERO;
+		BigInteger sum = BigInteger.ZERO;
+		for (int k = subOffsets[iClass]; k < subOffsets[iClass + 1]; k++) {
+			int subClass = subTargets[k];
+			if (valid[subClass]) {
+				count = count.add(bigCounts[subClass]);
+				sum = sum.add(bigSums[subClass]).add(bigCounts[subClass]);
+			}
+		}
+		if (count.signum() == 0) {
+			count = BigInteger.ONE;
+			sum = BigInteger.ONE;
+		}
+		bigCounts[iClass] = count;
+		bigSums[iClass] = sum;
+	}
+
+}
@@ -15,14 +15,9 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collections;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.graph.Node;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,74 +27,59 @@ import org.slf4j.LoggerFactory;
  * Formula: DITOnto=Max(PathLength(CThing,LeafCi)), where PathLength is the
  * function that calculates length between the i-th leaf concept LeafCi and the
  * CThing (owl:Thing). The maximum path length (Max) is then selected as result.
- * Inspired by:
- * https://stackoverflow.com/questions/40626898/getting-all-possible-paths-in-a-tree-structure
  * 
  * @author Andrej Tibaut
  */
-public class DITOnto {
+public class DITOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public DITOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("DITOnto - Depth of subsumption hierarchy");
+	@Override
+	public String getName() {
+		return "DITOnto";
+	}
 
-		int ditOnto = findLongestPathFromThing2Leaf(ontologyModel);
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		return compute(index.getCompactHierarchy());
+	}
 
-		logger.info("DITOnto: " + ditOnto);
-		logger.info("*********************************************");
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
+	}
 
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static int findLongestPathFromThing2Leaf(final OntModel iOntModel) {
-		List<List<OntClass>> allPathsThing2Leaf = new ArrayList<>();
+	private MetricResult compute(final CompactHierarchy iHierarchy) {
+		logger.info("*********************************************");
+		logger.info("DITOnto - Depth of subsumption hierarchy");
 
-		ExtendedIterator<OntClass> rootConcepts = iOntModel.listHierarchyRootClasses();
-		while (rootConcepts.hasNext()) {
-			OntClass aConcept = (OntClass) rootConcepts.next();
-			OntClass theThing = aConcept.getSuperClass();
+		// depth of the deepest leaf, computed with one longest-path pass
+		int ditOnto = iHierarchy.getMaxDepth();
 
-			// in case the root concept doesn't have rdfs:subClassOf
-			// rdf:resource="http://www.w3.org/2002/07/owl#Thing" (ontology pitfall)
-			String name = ((theThing == null) || (theThing.getLocalName() == null) ? "N/A" : theThing.getLocalName());
-			allPathsThing2Leaf = searchDepthFirstAllThing2LeafPaths(aConcept, name);
+		if (logger.isDebugEnabled()) {
+			for (int aClass = 0; aClass < iHierarchy.getSize(); aClass++) {
+				if (iHierarchy.isLeaf(aClass))
+					logger.debug("Leaf depth: " + toString(iHierarchy.getNode(aClass)) + "="
+							+ iHierarchy.getLeafDepth(aClass));
+			}
+		}
+		StringBuilder sb = new StringBuilder("Thing");
+		for (Node aConcept : iHierarchy.getLongestPath()) {
+			sb.append(" --> ").append(toString(aConcept));
 		}
-		logger.debug("All paths Thing to leaf: " + allPathsThing2Leaf);
-		List<OntClass> maxLengthList = allPathsThing2Leaf.stream().max(Comparator.comparingInt(List::size)).get();
-		logger.debug("Maximal length path Thing to leaf: " + maxLengthList);
+		logger.info("Maximal length path Thing to leaf: " + sb);
+		logger.info("DITOnto: " + ditOnto);
+		logger.info("*********************************************");
 
-		return maxLengthList.size();
+		return new MetricResult(getName(), ditOnto, ditOnto, 1, Collections.<String, Number>emptyMap());
 	}
 
-	public static List<List<OntClass>> searchDepthFirstAllThing2LeafPaths(OntClass iConcept, String s) {
-		List<List<OntClass>> retLists = new ArrayList<>();
-
-		if (iConcept.listSubClasses(true).toList().size() == 0) {
-			logger.debug(s + " --> " + iConcept.getLocalName());
-			List<OntClass> leafList = new LinkedList<>();
-			leafList.add(iConcept);
-			retLists.add(leafList);
-		} else {
-			ExtendedIterator<OntClass> isubConcepts = iConcept.listSubClasses(true);
-			while (isubConcepts.hasNext()) {
-				OntClass subConcept = isubConcepts.next();
-				List<List<OntClass>> nodeLists = searchDepthFirstAllThing2LeafPaths(subConcept,
-						s + " --> " + iConcept.getLocalName());
-				for (List<OntClass> nodeList : nodeLists) {
-					nodeList.add(0, iConcept);
-					retLists.add(nodeList);
-				}
-			}
-
-		}
-		return retLists;
+	private static String toString(final Node iConcept) {
+		return iConcept.isBlank() ? iConcept.getBlankNodeLabel() : iConcept.getLocalName();
 	}
 
-}
\ No newline at end of file
+}
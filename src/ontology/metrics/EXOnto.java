@@ -15,14 +15,10 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
-import org.apache.jena.rdf.model.StmtIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,33 +32,60 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  *
  */
-public class EXOnto {
+public class EXOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	private static String NS_XML = "http://www.w3.org/XML/1998/namespace";
-	private static String NS_OWL = "http://www.w3.org/2002/07/owl#";
-	private static String NS_OWLX = "http://www.w3.org/2003/05/owl-xml";
-	private static String NS_XSD = "http://www.w3.org/2001/XMLSchema#";
-	private static String NS_RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
-	private static String NS_RDFS = "http://www.w3.org/2000/01/rdf-schema#";
+	@Override
+	public String getName() {
+		return "EXOnto";
+	}
+
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.NAMESPACES);
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		// all statements are scanned only once for all namespaces
+		return compute(index.getOntologyModel().getNsPrefixMap(), index.getNamespaceHistogram());
+	}
 
-	public EXOnto(OntModel ontologyModel) {
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getPrefixes(), iState.getNamespaceHistogram());
+	}
+
+	/**
+	 * Computes the metric from the declared namespaces (the base namespace has
+	 * the empty prefix) and the namespace usage histogram.
+	 * 
+	 * @param iPrefixes
+	 *            prefix -> namespace
+	 * @param iHistogram
+	 *            namespace usage histogram
+	 * @return the result of the metric
+	 */
+	public MetricResult compute(final Map<String, String> iPrefixes, final NamespaceHistogram iHistogram) {
 		logger.info("*********************************************");
 		logger.info("EXOnto - Aggregability");
 
-		String baseNS = ontologyModel.getNsPrefixURI("");
+		String baseNS = iPrefixes.get("");
 		logger.info("Base namespace: " + baseNS);
 
+		// usage of every declared namespace, one resolution per used namespace
+		Map<String, Long> usage = iHistogram.getNumOfNSResources(new NamespaceResolver(baseNS, iPrefixes.values()));
+
 		long exonto = 0;
 		long ner = 0;
 
-		Map<String, String> nss = ontologyModel.getNsPrefixMap();
 		// iterate used namespaces
-		for (Map.Entry<String, String> entry : nss.entrySet()) {
+		for (Map.Entry<String, String> entry : iPrefixes.entrySet()) {
 			// external resouces
-			if (!isDefaultResource(entry.getValue()) && !isBaseResource(entry.getValue(), baseNS)) {
+			if (!NamespaceHistogram.isDefaultResource(entry.getValue())
+					&& !NamespaceHistogram.isBaseResource(entry.getValue(), baseNS)) {
 				logger.info("External namespace: " + entry.getKey() + "=" + entry.getValue());
-				long er = getNumOfNSResources(ontologyModel, entry.getValue());
+				long er = usage.getOrDefault(entry.getValue(), 0L);
 				// it counts only if there are some external resources used
 				if (er > 0) {
 					ner++;
@@ -76,81 +99,8 @@ public class EXOnto {
 		exonto = ner;
 		logger.info("EXOnto: " + exonto);
 		logger.info("*********************************************");
-	}
-
-	/**
-	 * Finds all external resources not counting default (must-have) ontology
-	 * namespaces
-	 * 
-	 * @param iOntologyModel
-	 *            ontology model
-	 * @param iNS
-	 *            a namespace
-	 * @return number of resources
-	 * @author Andrej Tibaut
-	 */
-	public long getNumOfNSResources(final OntModel iOntologyModel, String iNS) {
-		long n = 0;
-
-		StmtIterator iter = iOntologyModel.listStatements((Resource) null, (Property) null, (RDFNode) null);
-		while (iter.hasNext()) {
-			Statement s = iter.nextStatement();
-			logger.debug("eStatement: " + s);
-			if (s.getSubject().isURIResource() && s.getSubject().getNameSpace().startsWith(iNS)) {
-				logger.debug(">>eSub: " + s.getSubject().getNameSpace());
-				n++;
-			}
-			if (s.getPredicate().isURIResource() && s.getPredicate().getNameSpace().startsWith(iNS)) {
-				logger.debug(">>ePre: " + s.getPredicate().getNameSpace());
-				n++;
-			}
-			if (s.getObject() instanceof Resource) {
-				if (s.getObject().isURIResource()) {
-					if (s.getObject().asResource().getNameSpace().startsWith(iNS)) {
-						logger.debug(">>eObj: " + s.getObject().asResource().getNameSpace());
-						n++;
-					}
-				}
-			}
-
-		}
-
-		return n;
-
-	}
-
-	/**
-	 * The method checks if the resource is internal
-	 * 
-	 * @param iResourceURI
-	 *            resource URI
-	 * @param iBaseNS
-	 *            base URI
-	 * @return true or false
-	 * @author Andrej Tibaut
-	 */
-	public boolean isBaseResource(String iResourceURI, String iBaseNS) {
-
-		return (iResourceURI.startsWith(iBaseNS));
-
-	}
-
-	/**
-	 * The method checks if the resource is external
-	 * 
-	 * @param iResourceURI
-	 *            resource URI
-	 * @param iBaseNS
-	 *            base URI
-	 * @return true or false
-	 * @author Andrej Tibaut
-	 */
-	private boolean isDefaultResource(String iResourceURI) {
-
-		return (iResourceURI.startsWith(NS_XML) || iResourceURI.startsWith(NS_OWLX) || iResourceURI.startsWith(NS_OWL)
-				|| iResourceURI.startsWith(NS_XSD) || iResourceURI.startsWith(NS_RDF)
-				|| iResourceURI.startsWith(NS_RDFS));
 
+		return new MetricResult(getName(), exonto, exonto, 1, Collections.<String, Number>emptyMap());
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events of an evaluation: loading of the ontology, the
+ * build of every intermediate of the index and the computation of every
+ * metric. The events are emitted by {@link Instrumentation} and carry the
+ * ontology IRI, the number of triples and concepts and for metrics the result
+ * value, so a slow evaluation can be diagnosed from a continuous recording,
+ * e.g. "java -XX:StartFlightRecording=filename=rec.jfr ...".
+ * 
+ * The class must only be loaded when the jdk.jfr module is available (Java 11
+ * or Java 8 from update 262); the verifier of this class already loads the
+ * event classes, so the check is made by {@link Instrumentation}.
+ */
+final class EvaluationEvents {
+
+	private EvaluationEvents() {
+	}
+
+	/**
+	 * Starts the event of a span.
+	 * 
+	 * @param iKind
+	 *            kind of the span, see {@link Instrumentation}
+	 * @param iName
+	 *            name of the phase, intermediate or metric
+	 * @return the started event or null if the span has no event or the event
+	 *         is not recorded
+	 */
+	static Object begin(final String iKind, final String iName) {
+		EvaluationEvent event;
+		if (Instrumentation.METRIC.equals(iKind))
+			event = new MetricEvent();
+		else if (Instrumentation.INTERMEDIATE.equals(iKind) || "index".equals(iName))
+			event = new IndexEvent();
+		else if ("parse".equals(iName))
+			event = new LoadEvent();
+		else
+			return null;
+		if (!event.isEnabled())
+			return null;
+		event.name = iName;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Ends the event and commits it if it exceeds the threshold of the
+	 * recording.
+	 * 
+	 * @param iEvent
+	 *            event returned by {@link #begin(String, String)}
+	 * @param iOk
+	 *            false if the phase failed
+	 * @param iOntology
+	 *            ontology IRI
+	 * @param iTriples
+	 *            number of triples, -1 if not known
+	 * @param iConcepts
+	 *            number of named concepts, -1 if not known
+	 * @param iValue
+	 *            value of the metric, NaN for the other events
+	 */
+	static void commit(final Object iEvent, final boolean iOk, final String iOntology, final long iTriples,
+			final int iConcepts, final double iValue) {
+		EvaluationEvent event = (EvaluationEvent) iEvent;
+		event.end();
+		if (event.shouldCommit()) {
+			event.ok = iOk;
+			event.ontology = iOntology;
+			event.triples = iTriples;
+			event.concepts = iConcepts;
+			if (event instanceof MetricEvent)
+				((MetricEvent) event).value = iValue;
+			event.commit();
+		}
+	}
+
+	@Category("Ontology Metrics")
+	abstract static class EvaluationEvent extends Event {
+		@Label("Ontology")
+		@Description("IRI of the ontology or the file name")
+		String ontology;
+
+		@Label("Name")
+		String name;
+
+		@Label("Triples")
+		@Description("Number of triples, -1 if not known")
+		long triples;
+
+		@Label("Concepts")
+		@Description("Number of named concepts, -1 if not known")
+		int concepts;
+
+		@Label("Succeeded")
+		boolean ok;
+	}
+
+	@Name("ontology.metrics.Load")
+	@Label("Ontology Load")
+	@Description("Parsing of the ontology")
+	static class LoadEvent extends EvaluationEvent {
+	}
+
+	@Name("ontology.metrics.Index")
+	@Label("Index Build")
+	@Description("Build of an intermediate shared by the metrics")
+	static class IndexEvent extends EvaluationEvent {
+	}
+
+	@Name("ontology.metrics.Metric")
+	@Label("Metric Computation")
+	@Description("Computation of a metric")
+	static class MetricEvent extends EvaluationEvent {
+		@Label("Value")
+		double value;
+	}
+
+}
@@ -15,11 +15,10 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,19 +31,34 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class INROnto {
+public class INROnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public INROnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("INROnto - Relationships per concept");
+	@Override
+	public String getName() {
+		return "INROnto";
+	}
 
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
 		// get number of all subconcepts in the ontology
-		int nsc = getNumberOfSubconcepts(allConcepts);
+		int nsc = getNumberOfSubconcepts(index, allConcepts);
+
+		return getINROnto(nc, nsc);
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return getINROnto(iState.getNumberOfNamedConcepts(), iState.getNumberOfSubConcepts());
+	}
+
+	private MetricResult getINROnto(int nc, int nsc) {
+		logger.info("*********************************************");
+		logger.info("INROnto - Relationships per concept");
 
 		double inronto = (double) nsc / nc;
 
@@ -53,27 +67,14 @@ public class INROnto {
 		logger.info("INROnto: " + inronto);
 		logger.info("*********************************************");
 
+		return new MetricResult(getName(), inronto, nsc, nc, Collections.<String, Number>emptyMap());
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
-	}
-
-	public int getNumberOfSubconcepts(final List<OntClass> iConcepts) {
+	public int getNumberOfSubconcepts(final OntologyIndex iIndex, final List<OntClass> iConcepts) {
 		int nsc = 0; // number of subconcepts
 
 		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntClass> iter = aConcept.listSubClasses(true);
-			if (iter.hasNext())
-				nsc += iter.toList().size();
+			nsc += iIndex.getSubClasses(aConcept).size();
 		}
 
 		return nsc;
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.PrefixMap;
+import org.apache.jena.riot.system.PrefixMapFactory;
+import org.apache.jena.riot.tokens.Token;
+import org.apache.jena.riot.tokens.TokenType;
+import org.apache.jena.riot.tokens.Tokenizer;
+import org.apache.jena.riot.tokens.TokenizerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental evaluation of an ontology. The graph of the ontology and its
+ * {@link TripleMetricState} are kept and changed by added and removed triples,
+ * e.g. of an RDF Patch. The counters of the state are updated by every change,
+ * so after a change only the path statistics of the changed classes and their
+ * ancestors are computed again instead of parsing and evaluating the whole
+ * ontology. The results are kept until the next change.
+ * 
+ * Supported RDF Patch rows are A (add), D (delete), PA, PD (prefixes), H
+ * (header, ignored) and the transaction rows TX, TC and TA (the changes of an
+ * aborted transaction, triples and prefixes, are dropped). Adding a triple of the graph or deleting a
+ * triple not in the graph changes nothing. The graph of a quad is ignored.
+ * Blank nodes are matched by label, so they can refer to the blank nodes of the
+ * ontology only if it was parsed preserving the labels.
+ */
+public class IncrementalEvaluation {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final Graph graph;
+	private final TripleMetricState state;
+	private final List<OntologyMetric> metrics;
+
+	// results of the current state, null after a change
+	private Map<String, MetricResult> results;
+
+	/**
+	 * @param iGraph
+	 *            graph of the ontology, changed by the patches
+	 * @param iBaseNS
+	 *            base namespace, null to use the namespace with the empty prefix
+	 * @param iMetrics
+	 *            metrics to compute, only {@link StreamingMetric}s are computed
+	 */
+	public IncrementalEvaluation(final Graph iGraph, final String iBaseNS, final List<OntologyMetric> iMetrics) {
+		long start = System.currentTimeMillis();
+		this.graph = iGraph;
+		this.state = new TripleMetricState(iBaseNS);
+		this.metrics = iMetrics;
+		for (Map.Entry<String, String> entry : iGraph.getPrefixMapping().getNsPrefixMap().entrySet()) {
+			state.addPrefix(entry.getKey(), entry.getValue());
+		}
+		iGraph.find(Triple.ANY).forEachRemaining(state::add);
+		logger.info("Incremental state of " + state.getTripleCount() + " triples built in "
+				+ (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * @return statistics of the ontology with all changes applied
+	 */
+	public TripleMetricState getState() {
+		return state;
+	}
+
+	/**
+	 * @param iTriple
+	 *            triple added to the ontology
+	 * @return true if the triple was not in the ontology
+	 */
+	public boolean add(final Triple iTriple) {
+		if (graph.contains(iTriple))
+			return false;
+		graph.add(iTriple);
+		state.add(iTriple);
+		results = null;
+		return true;
+	}
+
+	/**
+	 * @param iTriple
+	 *            triple removed from the ontology
+	 * @return true if the triple was in the ontology
+	 */
+	public boolean remove(final Triple iTriple) {
+		if (!graph.contains(iTriple))
+			return false;
+		graph.delete(iTriple);
+		state.remove(iTriple);
+		results = null;
+		return true;
+	}
+
+	/**
+	 * @return metric results of the current state
+	 */
+	public Map<String, MetricResult> getResults() {
+		if (results == null)
+			results = StreamingEvaluation.run(state, metrics);
+		return results;
+	}
+
+	/**
+	 * Applies the RDF Patch file.
+	 * 
+	 * @param iFile
+	 *            file name
+	 * @return number of triples added or removed, i.e. not already in (not in)
+	 *         the ontology
+	 * @throws IOException
+	 */
+	public int apply(final String iFile) throws IOException {
+		try (InputStream in = Files.newInputStream(Paths.get(iFile))) {
+			return apply(in);
+		}
+	}
+
+	/**
+	 * Applies the RDF Patch.
+	 * 
+	 * @param iPatch
+	 *            RDF Patch (UTF-8)
+	 * @return number of triples added or removed, i.e. not already in (not in)
+	 *         the ontology
+	 */
+	public int apply(final InputStream iPatch) {
+		long start = System.currentTimeMillis();
+		PrefixMap prefixes = PrefixMapFactory.create();
+		Tokenizer tokenizer = TokenizerFactory.makeTokenizerUTF8(iPatch);
+		// changes of the open transaction, applied on commit
+		List<Change> changes = new ArrayList<>();
+		// prefixes of the patch before the open transaction, restored on abort
+		PrefixMap committed = null;
+		boolean inTransaction = false;
+		int applied = 0;
+
+		while (tokenizer.hasNext()) {
+			Token code = tokenizer.next();
+			if (!code.isWord())
+				throw new RiotException("Patch row code expected at line " + code.getLine() + ": " + code);
+			List<Token> row = new ArrayList<>(4);
+			while (true) {
+				if (!tokenizer.hasNext())
+					throw new RiotException("Patch row not terminated by '.' at line " + code.getLine());
+				Token t = tokenizer.next();
+				if (t.hasType(TokenType.DOT))
+					break;
+				row.add(t);
+			}
+
+			switch (code.getImage()) {
+			case "A":
+			case "D":
+				if (row.size() < 3 || row.size() > 4)
+					throw new RiotException("Triple or quad expected at line " + code.getLine());
+				Triple triple = Triple.create(node(row.get(0), prefixes), node(row.get(1), prefixes),
+						node(row.get(2), prefixes));
+				changes.add(new Change(code.getImage(), triple, null, null));
+				break;
+			case "PA":
+				if (row.size() != 2)
+					throw new RiotException("Prefix and IRI expected at line " + code.getLine());
+				// the following rows of the patch use the prefix, the state gets it
+				// with the other changes
+				prefixes.add(row.get(0).getImage(), row.get(1).getImage());
+				changes.add(new Change("PA", null, row.get(0).getImage(), row.get(1).getImage()));
+				break;
+			case "PD":
+				if (row.size() < 1)
+					throw new RiotException("Prefix expected at line " + code.getLine());
+				prefixes.delete(row.get(0).getImage());
+				changes.add(new Change("PD", null, row.get(0).getImage(), null));
+				break;
+			case "H":
+				break;
+			case "TX":
+				committed = PrefixMapFactory.create(prefixes);
+				inTransaction = true;
+				break;
+			case "TA":
+				logger.info("Transaction aborted, " + changes.size() + " changes dropped");
+				changes.clear();
+				if (committed != null)
+					prefixes = committed;
+				inTransaction = false;
+				break;
+			case "TC":
+				applied += apply(changes);
+				inTransaction = false;
+				break;
+			default:
+				throw new RiotException("Unknown patch row code at line " + code.getLine() + ": " + code.getImage());
+			}
+			if (!inTransaction)
+				applied += apply(changes);
+		}
+		if (inTransaction)
+			logger.warn("Patch ends in a transaction, " + changes.size() + " changes dropped");
+
+		logger.info("Patch of " + applied + " changes applied in " + (System.currentTimeMillis() - start) + " ms");
+		return applied;
+	}
+
+	/**
+	 * @return number of triples added or removed
+	 */
+	private int apply(final List<Change> iChanges) {
+		int n = 0;
+		for (Change change : iChanges) {
+			switch (change.code) {
+			case "A":
+				n += add(change.triple) ? 1 : 0;
+				break;
+			case "D":
+				n += remove(change.triple) ? 1 : 0;
+				break;
+			case "PA":
+				state.addPrefix(change.prefix, change.iri);
+				results = null;
+				break;
+			case "PD":
+				state.removePrefix(change.prefix);
+				results = null;
+				break;
+			}
+		}
+		iChanges.clear();
+		return n;
+	}
+
+	private static Node node(final Token iToken, final PrefixMap iPrefixes) {
+		if (!iToken.isNode())
+			throw new RiotException("RDF term expected at line " + iToken.getLine() + ": " + iToken);
+		return iToken.asNode(iPrefixes);
+	}
+
+	/**
+	 * Added or removed triple or prefix, the code is the patch row code.
+	 */
+	private static class Change {
+		final String code;
+		final Triple triple;
+		final String prefix;
+		final String iri;
+
+		Change(final String iCode, final Triple iTriple, final String iPrefix, final String iIRI) {
+			this.code = iCode;
+			this.triple = iTriple;
+			this.prefix = iPrefix;
+			this.iri = iIRI;
+		}
+	}
+
+}
@@ -0,0 +1,432 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.jena.atlas.io.IndentedWriter;
+import org.apache.jena.atlas.json.JSON;
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonNull;
+import org.apache.jena.atlas.json.JsonNumber;
+import org.apache.jena.atlas.json.JsonObject;
+import org.apache.jena.atlas.json.JsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+/**
+ * Instrumentation of one evaluation. Every phase (parsing, index build),
+ * intermediate and metric is measured as a {@link Span}: wall time, CPU time
+ * and bytes allocated by the thread running it (ThreadMXBean) and the peak
+ * heap used by the JVM during the span. The used heap only grows between two
+ * garbage collections, so its peak is the larger of the samples at the start
+ * and the end of the span (MemoryMXBean) and the heap used before every
+ * collection during the span (GC notifications of the garbage collector
+ * MXBeans, delivered asynchronously shortly after the collection). The heap
+ * cannot be split between threads and includes garbage not yet collected, so
+ * it is an indication only; a span overlapping a span of another evaluation
+ * in the same JVM (e.g. in a batch with several threads) is marked as shared
+ * in the report, its heap includes the other evaluation.
+ * 
+ * The report is written as one JSON object per evaluation (one line), see
+ * {@link #write(OutputStream, Map)}. When the JVM supports Java Flight Recorder,
+ * the loading, the intermediates and the metrics are also emitted as JFR
+ * events (see {@link EvaluationEvents}).
+ */
+public class Instrumentation {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	public static final String PHASE = "phase";
+	public static final String INTERMEDIATE = "intermediate";
+	public static final String METRIC = "metric";
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+	// running and started spans of all evaluations in the JVM
+	private static final AtomicInteger RUNNING = new AtomicInteger();
+	private static final AtomicLong STARTED = new AtomicLong();
+	// running spans, their peak heap is raised by the garbage collections
+	private static final Set<Span> ACTIVE = ConcurrentHashMap.newKeySet();
+	static {
+		listenToCollections();
+	}
+
+	// JFR events are only created when the jdk.jfr module is available
+	private static final boolean EVENTS = flightRecorder();
+
+	private final String ontology;
+	// set when the ontology is loaded
+	private volatile String iri;
+	private volatile long triples = -1;
+	private volatile int concepts = -1;
+	private volatile int imports = -1;
+	private final long start = System.currentTimeMillis();
+	private final List<Span> spans = new ArrayList<>();
+	// running and started spans of this evaluation
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicLong started = new AtomicLong();
+
+	/**
+	 * @param iOntology
+	 *            file name of the evaluated ontology
+	 */
+	public Instrumentation(final String iOntology) {
+		this.ontology = iOntology;
+		this.iri = iOntology;
+	}
+
+	private static boolean flightRecorder() {
+		try {
+			Class.forName("jdk.jfr.Event", false, Instrumentation.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Describes the loaded ontology, the values are added to the events and to
+	 * the report.
+	 * 
+	 * @param iIri
+	 *            ontology IRI, null to keep the file name
+	 * @param iTriples
+	 *            number of triples, -1 if not known
+	 * @param iConcepts
+	 *            number of named concepts, -1 if not known
+	 */
+	public void setOntology(final String iIri, final long iTriples, final int iConcepts) {
+		if (iIri != null)
+			this.iri = iIri;
+		this.triples = iTriples;
+		this.concepts = iConcepts;
+	}
+
+	/**
+	 * @param iImports
+	 *            number of imported ontologies loaded with the ontology
+	 */
+	public void setImports(final int iImports) {
+		this.imports = iImports;
+	}
+
+	/**
+	 * @return number of imported ontologies loaded with the ontology, -1 if
+	 *         the imports were not loaded
+	 */
+	public int getImports() {
+		return imports;
+	}
+
+	/**
+	 * Starts the measurement of a phase, an intermediate or a metric on the
+	 * current thread.
+	 * 
+	 * @param iKind
+	 *            {@link #PHASE}, {@link #INTERMEDIATE} or {@link #METRIC}
+	 * @param iName
+	 *            name of the phase, intermediate or metric
+	 * @return the running span, {@link Span#end()} must be called on the same
+	 *         thread
+	 */
+	public Span start(final String iKind, final String iName) {
+		return new Span(iKind, iName);
+	}
+
+	/**
+	 * @return the finished spans in the order they ended
+	 */
+	public synchronized List<Span> getSpans() {
+		return new ArrayList<>(spans);
+	}
+
+	private synchronized void add(final Span iSpan) {
+		spans.add(iSpan);
+	}
+
+	private static long heapUsed() {
+		return MEMORY.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * Raises the peak heap of the running spans to the heap used before every
+	 * garbage collection. Without the GC notifications (not a HotSpot
+	 * compatible JVM) only the start and the end of the spans are sampled.
+	 */
+	private static void listenToCollections() {
+		try {
+			Set<String> heapPools = new HashSet<>();
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP)
+					heapPools.add(pool.getName());
+			}
+			NotificationListener listener = (notification, handback) -> {
+				if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+					return;
+				GcInfo gc = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData())
+						.getGcInfo();
+				long used = 0;
+				for (Map.Entry<String, MemoryUsage> entry : gc.getMemoryUsageBeforeGc().entrySet()) {
+					if (heapPools.contains(entry.getKey()))
+						used += entry.getValue().getUsed();
+				}
+				for (Span span : ACTIVE) {
+					span.raiseHeapPeak(used);
+				}
+			};
+			for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (collector instanceof NotificationEmitter)
+					((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+			}
+		} catch (LinkageError | RuntimeException e) {
+			logger.debug("No garbage collection notifications, the heap is sampled at the start and the end", e);
+		}
+	}
+
+	private static long cpuTime() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes the report of the evaluation as a single line JSON object:
+	 * ontology, start time, wall time, the largest peak heap, whether the
+	 * heap was shared with another evaluation, the spans and the metric
+	 * values.
+	 * 
+	 * @param iOut
+	 *            output stream, not closed
+	 * @param iResults
+	 *            results of the evaluation
+	 */
+	public void write(final OutputStream iOut, final Map<String, MetricResult> iResults) {
+		JsonObject report = new JsonObject();
+		report.put("ontology", ontology);
+		report.put("iri", iri);
+		report.put("triples", triples);
+		report.put("concepts", concepts);
+		report.put("imports", imports);
+		report.put("started", start);
+		report.put("wallMs", System.currentTimeMillis() - start);
+
+		long heapPeak = 0;
+		boolean shared = false;
+		JsonArray phases = new JsonArray();
+		for (Span span : getSpans()) {
+			JsonObject phase = new JsonObject();
+			phase.put("kind", span.kind);
+			phase.put("name", span.name);
+			phase.put("thread", span.thread);
+			phase.put("ok", span.ok);
+			phase.put("wallMs", number(span.wallNanos / 1e6));
+			phase.put("cpuMs", span.cpuNanos < 0 ? JsonNull.instance : number(span.cpuNanos / 1e6));
+			phase.put("allocatedBytes",
+					span.allocatedBytes < 0 ? JsonNull.instance : JsonNumber.value(span.allocatedBytes));
+			phase.put("heapPeakBytes", span.heapPeakBytes);
+			phase.put("heapShared", span.heapShared);
+			phases.add(phase);
+			heapPeak = Math.max(heapPeak, span.heapPeakBytes);
+			shared |= span.heapShared;
+		}
+		report.put("heapPeakBytes", heapPeak);
+		report.put("heapShared", shared);
+		report.put("phases", phases);
+
+		JsonObject values = new JsonObject();
+		for (MetricResult result : iResults.values()) {
+			values.put(result.getName(), number(result.getValue()));
+		}
+		report.put("results", values);
+
+		IndentedWriter writer = new IndentedWriter(iOut);
+		writer.setFlatMode(true);
+		JSON.write(writer, report);
+		writer.flush();
+	}
+
+	// NaN and infinity are not valid JSON numbers
+	private static JsonValue number(final double iValue) {
+		return Double.isNaN(iValue) || Double.isInfinite(iValue) ? JsonNull.instance : JsonNumber.value(iValue);
+	}
+
+	/**
+	 * Measurement of a phase, an intermediate or a metric.
+	 */
+	public class Span {
+		private final String kind;
+		private final String name;
+		private final String thread = Thread.currentThread().getName();
+		private final long wallStart = System.nanoTime();
+		private final long cpuStart = cpuTime();
+		private final long allocatedStart = allocatedBytes();
+		// raised by the garbage collections during the span
+		private final AtomicLong heapPeak = new AtomicLong(heapUsed());
+		// spans of other evaluations running at the start and started so far
+		private final boolean othersRunning;
+		private final long othersStarted;
+		private final Object event;
+
+		private boolean ok;
+		private long wallNanos;
+		private long cpuNanos = -1;
+		private long allocatedBytes = -1;
+		private long heapPeakBytes;
+		private boolean heapShared;
+
+		private Span(final String iKind, final String iName) {
+			this.kind = iKind;
+			this.name = iName;
+			this.othersRunning = RUNNING.getAndIncrement() > running.getAndIncrement();
+			this.othersStarted = STARTED.incrementAndGet() - started.incrementAndGet();
+			this.event = EVENTS ? EvaluationEvents.begin(iKind, iName) : null;
+			ACTIVE.add(this);
+		}
+
+		private void raiseHeapPeak(final long iUsed) {
+			heapPeak.accumulateAndGet(iUsed, Math::max);
+		}
+
+		/**
+		 * Ends the successful span.
+		 */
+		public void end() {
+			end(true);
+		}
+
+		/**
+		 * Ends the span.
+		 * 
+		 * @param iOk
+		 *            false if the phase failed
+		 */
+		public void end(final boolean iOk) {
+			end(iOk, null);
+		}
+
+		/**
+		 * Ends the span of a metric.
+		 * 
+		 * @param iOk
+		 *            false if the metric failed
+		 * @param iResult
+		 *            result of the metric, null if it failed
+		 */
+		public void end(final boolean iOk, final MetricResult iResult) {
+			if (event != null)
+				EvaluationEvents.commit(event, iOk, iri, triples, concepts,
+						(iResult == null) ? Double.NaN : iResult.getValue());
+			this.ok = iOk;
+			this.wallNanos = System.nanoTime() - wallStart;
+			if (cpuStart >= 0)
+				this.cpuNanos = cpuTime() - cpuStart;
+			if (allocatedStart >= 0)
+				this.allocatedBytes = allocatedBytes() - allocatedStart;
+			ACTIVE.remove(this);
+			raiseHeapPeak(heapUsed());
+			this.heapPeakBytes = heapPeak.get();
+			// another evaluation ran at the start or started a span since then
+			this.heapShared = othersRunning || STARTED.get() - started.get() != othersStarted;
+			running.decrementAndGet();
+			RUNNING.decrementAndGet();
+			add(this);
+			if (logger.isDebugEnabled())
+				logger.debug(kind + " " + name + ": " + wallNanos / 1000000 + " ms, cpu " + cpuNanos / 1000000
+						+ " ms, allocated " + allocatedBytes + " bytes");
+		}
+
+		/**
+		 * @return kind of the span (phase, intermediate or metric)
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return name of the phase, intermediate or metric
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return wall time in nanoseconds
+		 */
+		public long getWallNanos() {
+			return wallNanos;
+		}
+
+		/**
+		 * @return CPU time of the thread in nanoseconds, -1 if not supported
+		 */
+		public long getCpuNanos() {
+			return cpuNanos;
+		}
+
+		/**
+		 * @return bytes allocated by the thread, -1 if not supported
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		/**
+		 * @return largest heap used by the JVM during the span: at the start, at
+		 *         the end or before a garbage collection
+		 */
+		public long getHeapPeakBytes() {
+			return heapPeakBytes;
+		}
+
+		/**
+		 * @return true if a span of another evaluation ran at the same time, the
+		 *         heap includes the other evaluation
+		 */
+		public boolean isHeapShared() {
+			return heapShared;
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Intermediate results of the {@link OntologyIndex} shared by the metrics. The
+ * estimated costs are relative and only used for ordering by
+ * {@link MetricScheduler}.
+ */
+public enum Intermediate {
+	HIERARCHY(50, index -> index.getNamedConcepts()),
+	PATHS(1, index -> index.getCompactHierarchy().getPathCount(), HIERARCHY),
+	NAMESPACES(5, index -> index.getNamespaceHistogram()),
+	PROPERTY_DOMAINS(5, index -> index.getPropertyDomains(), HIERARCHY),
+	RESTRICTIONS(5, index -> index.getRestrictions(), HIERARCHY);
+
+	final int cost;
+	final Consumer<OntologyIndex> computation;
+	final List<Intermediate> dependencies;
+
+	Intermediate(int iCost, Consumer<OntologyIndex> iComputation, Intermediate... iDependencies) {
+		this.cost = iCost;
+		this.computation = iComputation;
+		this.dependencies = Arrays.asList(iDependencies);
+	}
+
+	/**
+	 * Computes the intermediate result (if not computed yet).
+	 * 
+	 * @param iIndex
+	 *            ontology index
+	 */
+	public void compute(final OntologyIndex iIndex) {
+		computation.accept(iIndex);
+	}
+
+	/**
+	 * @return intermediate results this one is computed from
+	 */
+	public List<Intermediate> getDependencies() {
+		return dependencies;
+	}
+
+}
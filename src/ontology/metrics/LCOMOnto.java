@@ -15,13 +15,10 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.math.BigInteger;
+import java.util.Collections;
 import java.util.List;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,82 +29,56 @@ import org.slf4j.LoggerFactory;
  * LCOMOnto=∑PathLength(CThing,LeafCi) / ∑PathLeafCj, where PathLength is the
  * function that calculates length between the i-th leaf concept LeafCi and the
  * CThing (owl:Thing) and PathLeafCi is the j-th path between CThing and a leaf.
- * Inspired by:
- * https://stackoverflow.com/questions/40626898/getting-all-possible-paths-in-a-tree-structure
+ * The paths of all root concepts are counted.
  * 
  * 
  * @author Andrej Tibaut
  * 
  */
-public class LCOMOnto {
+public class LCOMOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public LCOMOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-
-		logger.info("LCOMOnto - Lack of Cohesion in Methods");
-
-		int allPathsLength = 0;
-		List<List<OntClass>> allPathsThing2Leaf = getAllPathsFromThing2Leaf(ontologyModel);
-		for (List<OntClass> path : allPathsThing2Leaf) {
-			allPathsLength += path.size();
-		}
-
-		logger.info("Number of all leaf paths: " + allPathsThing2Leaf.size());
-		logger.info("Sum of all legths of all paths between Thing and leaf: " + allPathsLength);
-		double LCOMOnto = (double) allPathsLength / allPathsThing2Leaf.size();
-		logger.info("LCOMOnto (Lack of Cohesion in Methods)):" + LCOMOnto);
-		logger.info("*********************************************");
-
+	@Override
+	public String getName() {
+		return "LCOMOnto";
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<List<OntClass>> getAllPathsFromThing2Leaf(final OntModel iOntModel) {
-		List<List<OntClass>> allPathsThing2Leaf = new ArrayList<>();
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.PATHS);
+	}
 
-		ExtendedIterator<OntClass> rootConcepts = iOntModel.listHierarchyRootClasses();
-		while (rootConcepts.hasNext()) {
-			OntClass aConcept = (OntClass) rootConcepts.next();
-			OntClass theThing = aConcept.getSuperClass();
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		// paths are counted, not enumerated (see CompactHierarchy)
+		CompactHierarchy hierarchy = index.getCompactHierarchy();
+		return getLCOMOnto(hierarchy.getPathLengthSum(), hierarchy.getPathCount());
+	}
 
-			// in case the root concept doesn't have rdfs:subClassOf
-			// rdf:resource="http://www.w3.org/2002/07/owl#Thing" (ontology pitfall)
-			String name = ((theThing == null) || (theThing.getLocalName() == null) ? "N/A" : theThing.getLocalName());
-			allPathsThing2Leaf = searchDepthFirstAllThing2LeafPaths(aConcept, name);
-		}
-		// logger.info("All paths Thing to leaf: " + allPathsThing2Leaf);
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		CompactHierarchy hierarchy = iState.getHierarchy();
+		return getLCOMOnto(hierarchy.getPathLengthSum(), hierarchy.getPathCount());
+	}
 
-		return allPathsThing2Leaf;
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
 	}
 
-	public static List<List<OntClass>> searchDepthFirstAllThing2LeafPaths(OntClass iConcept, String s) {
-		List<List<OntClass>> retLists = new ArrayList<>();
+	private MetricResult getLCOMOnto(BigInteger allPathsLength, BigInteger allPathsThing2Leaf) {
+		logger.info("*********************************************");
 
-		if (iConcept.listSubClasses(true).toList().size() == 0) {
-			// logger.info(s + " --> " + iConcept.getLocalName());
-			List<OntClass> leafList = new LinkedList<>();
-			leafList.add(iConcept);
-			retLists.add(leafList);
-		} else {
-			ExtendedIterator<OntClass> isubConcepts = iConcept.listSubClasses(true);
-			while (isubConcepts.hasNext()) {
-				OntClass subConcept = isubConcepts.next();
-				List<List<OntClass>> nodeLists = searchDepthFirstAllThing2LeafPaths(subConcept,
-						s + " --> " + iConcept.getLocalName());
-				for (List<OntClass> nodeList : nodeLists) {
-					nodeList.add(0, iConcept);
-					retLists.add(nodeList);
-				}
-			}
+		logger.info("LCOMOnto - Lack of Cohesion in Methods");
+
+		logger.info("Number of all leaf paths: " + allPathsThing2Leaf);
+		logger.info("Sum of all legths of all paths between Thing and leaf: " + allPathsLength);
+		double LCOMOnto = CompactHierarchy.divide(allPathsLength, allPathsThing2Leaf);
+		logger.info("LCOMOnto (Lack of Cohesion in Methods)):" + LCOMOnto);
+		logger.info("*********************************************");
 
-		}
-		return retLists;
+		return new MetricResult(getName(), LCOMOnto, allPathsLength.doubleValue(), allPathsThing2Leaf.doubleValue(),
+				Collections.<String, Number>emptyMap());
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.sparql.util.graph.GraphListenerBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Metrics of an ontology model kept up to date while the model is edited, e.g.
+ * by an ontology editor. The evaluation registers itself as a listener of the
+ * graph of the model and records every added and removed triple in a
+ * {@link TripleMetricState}, so the model is never scanned again. The state
+ * updates the counters of the metrics in the callbacks. A query computes again
+ * only the metrics whose inputs changed: the metrics of the hierarchy only
+ * after a change of the hierarchy (then only the changed part is walked
+ * again), the other metrics read the counters. The prefixes of the model are
+ * compared on every query and only the changed ones are passed to the state.
+ * 
+ * The graph notifies an add (delete) even if the triple was (was not) there.
+ * Instead of a copy of the triples, the size of the base graph tells whether a
+ * triple was added or deleted: it grows with a new triple and shrinks with a
+ * deleted one. A triple also in an imported graph is counted once. When a bulk
+ * change contains triples already there (or deleted triples not there), the
+ * state is built again from the graph.
+ * 
+ * Changes must be made through the {@link OntModel} (not its base model) to be
+ * seen. Only metrics implementing {@link StreamingMetric} are computed, the
+ * others are reported once when the evaluation is created.
+ */
+public class LiveEvaluation extends GraphListenerBase {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final OntModel ontologyModel;
+	private final Graph graph;
+	private final Graph baseGraph;
+	private final List<StreamingMetric> metrics = new ArrayList<>();
+
+	private TripleMetricState state;
+	// size of the base graph after the last change
+	private long baseSize;
+	// prefixes of the model passed to the state
+	private final Map<String, String> prefixes = new HashMap<>();
+
+	// results of the current state, null after a change
+	private Map<String, MetricResult> results;
+	// last result of every metric and the hierarchy the results were computed
+	// with
+	private final Map<String, MetricResult> computed = new HashMap<>();
+	private CompactHierarchy hierarchy;
+
+	/**
+	 * Reads the current content of the model and starts listening to its
+	 * changes.
+	 * 
+	 * @param iOntologyModel
+	 *            ontology model
+	 * @param iMetrics
+	 *            metrics to compute
+	 */
+	public LiveEvaluation(final OntModel iOntologyModel, final List<OntologyMetric> iMetrics) {
+		this.ontologyModel = iOntologyModel;
+		this.graph = iOntologyModel.getGraph();
+		this.baseGraph = iOntologyModel.getBaseModel().getGraph();
+		List<String> skipped = new ArrayList<>();
+		for (OntologyMetric metric : iMetrics) {
+			if (metric instanceof StreamingMetric)
+				metrics.add((StreamingMetric) metric);
+			else
+				skipped.add(metric.getName());
+		}
+		if (!skipped.isEmpty())
+			logger.warn("Not computed by the live evaluation (no streaming support): " + skipped);
+		load();
+		graph.getEventManager().register(this);
+	}
+
+	/**
+	 * Stops listening to the changes of the model.
+	 */
+	public void detach() {
+		graph.getEventManager().unregister(this);
+	}
+
+	/**
+	 * @return results of the metrics for the current content of the model
+	 */
+	public synchronized Map<String, MetricResult> getResults() {
+		if (syncPrefixes())
+			results = null;
+		if (results == null) {
+			long start = System.currentTimeMillis();
+			CompactHierarchy current = state.getHierarchy();
+			Map<String, MetricResult> updated = new LinkedHashMap<>();
+			int n = 0;
+			for (StreamingMetric metric : metrics) {
+				MetricResult result = computed.get(metric.getName());
+				if (result == null || current != hierarchy || !metric.isHierarchyMetric()) {
+					try {
+						result = metric.compute(state);
+						n++;
+					} catch (Exception e) {
+						logger.error("Failed: " + metric.getName(), e);
+						result = null;
+					}
+				}
+				if (result == null) {
+					computed.remove(metric.getName());
+				} else {
+					computed.put(metric.getName(), result);
+					updated.put(metric.getName(), result);
+				}
+			}
+			hierarchy = current;
+			results = Collections.unmodifiableMap(updated);
+			if (logger.isDebugEnabled())
+				logger.debug("Live metrics updated in " + (System.currentTimeMillis() - start) + " ms (" + n + " of "
+						+ metrics.size() + " metrics computed)");
+		}
+		return results;
+	}
+
+	/**
+	 * @param iName
+	 *            metric name
+	 * @return result of the metric for the current content of the model, null if
+	 *         the metric is not computed
+	 */
+	public MetricResult getResult(final String iName) {
+		return getResults().get(iName);
+	}
+
+	/**
+	 * Passes the prefixes added, changed or removed since the last call to the
+	 * state, the model does not notify prefix changes.
+	 * 
+	 * @return true if a prefix changed
+	 */
+	private boolean syncPrefixes() {
+		Map<String, String> current = ontologyModel.getNsPrefixMap();
+		if (current.equals(prefixes))
+			return false;
+		// a changed prefix is removed first, the base namespace is not replaced
+		// otherwise
+		for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+			if (!entry.getValue().equals(current.get(entry.getKey())))
+				state.removePrefix(entry.getKey());
+		}
+		for (Map.Entry<String, String> entry : current.entrySet()) {
+			if (!entry.getValue().equals(prefixes.get(entry.getKey())))
+				state.addPrefix(entry.getKey(), entry.getValue());
+		}
+		prefixes.clear();
+		prefixes.putAll(current);
+		return true;
+	}
+
+	@Override
+	protected synchronized void addEvent(final Triple iTriple) {
+		// the base graph grows only with a new triple
+		long size = baseGraph.size();
+		boolean added = size > baseSize;
+		baseSize = size;
+		if (added && !isImported(iTriple)) {
+			state.add(iTriple);
+			results = null;
+		}
+	}
+
+	@Override
+	protected synchronized void deleteEvent(final Triple iTriple) {
+		long size = baseGraph.size();
+		boolean deleted = size < baseSize;
+		baseSize = size;
+		// the triple may still be in an imported graph
+		if (deleted && !graph.contains(iTriple)) {
+			state.remove(iTriple);
+			results = null;
+		}
+	}
+
+	@Override
+	public void notifyAddArray(final Graph iGraph, final Triple[] iTriples) {
+		added(Arrays.asList(iTriples).iterator());
+	}
+
+	@Override
+	public void notifyAddList(final Graph iGraph, final List<Triple> iTriples) {
+		added(iTriples.iterator());
+	}
+
+	@Override
+	public void notifyAddIterator(final Graph iGraph, final Iterator<Triple> iTriples) {
+		added(iTriples);
+	}
+
+	@Override
+	public void notifyAddGraph(final Graph iGraph, final Graph iAdded) {
+		added(iAdded.find(Triple.ANY));
+	}
+
+	@Override
+	public void notifyDeleteArray(final Graph iGraph, final Triple[] iTriples) {
+		deleted(Arrays.asList(iTriples).iterator());
+	}
+
+	@Override
+	public void notifyDeleteList(final Graph iGraph, final List<Triple> iTriples) {
+		deleted(iTriples.iterator());
+	}
+
+	@Override
+	public void notifyDeleteIterator(final Graph iGraph, final Iterator<Triple> iTriples) {
+		deleted(iTriples);
+	}
+
+	@Override
+	public void notifyDeleteGraph(final Graph iGraph, final Graph iDeleted) {
+		deleted(iDeleted.find(Triple.ANY));
+	}
+
+	/**
+	 * Records the triples of a bulk add, or builds the state again if some of
+	 * them were already there.
+	 */
+	private synchronized void added(final Iterator<Triple> iTriples) {
+		Set<Triple> triples = new LinkedHashSet<>();
+		iTriples.forEachRemaining(triples::add);
+		long size = baseGraph.size();
+		if (size - baseSize != triples.size()) {
+			load();
+			return;
+		}
+		baseSize = size;
+		for (Triple t : triples) {
+			if (!isImported(t))
+				state.add(t);
+		}
+		results = null;
+	}
+
+	/**
+	 * Records the triples of a bulk delete, or builds the state again if some
+	 * of them were not there.
+	 */
+	private synchronized void deleted(final Iterator<Triple> iTriples) {
+		Set<Triple> triples = new LinkedHashSet<>();
+		iTriples.forEachRemaining(triples::add);
+		long size = baseGraph.size();
+		if (baseSize - size != triples.size()) {
+			load();
+			return;
+		}
+		baseSize = size;
+		for (Triple t : triples) {
+			if (!graph.contains(t))
+				state.remove(t);
+		}
+		results = null;
+	}
+
+	/**
+	 * @return true if the triple is in an imported graph, it was counted
+	 *         already
+	 */
+	private boolean isImported(final Triple iTriple) {
+		for (Graph aGraph : ontologyModel.getSubGraphs()) {
+			if (aGraph.contains(iTriple))
+				return true;
+		}
+		return false;
+	}
+
+	private synchronized void load() {
+		long start = System.currentTimeMillis();
+		state = new TripleMetricState(null);
+		prefixes.clear();
+		syncPrefixes();
+		// the union graph returns a triple of several graphs once
+		graph.find(Triple.ANY).forEachRemaining(state::add);
+		baseSize = baseGraph.size();
+		results = null;
+		computed.clear();
+		hierarchy = null;
+		logger.info("Live metrics state of " + state.getTripleCount() + " triples built in "
+				+ (System.currentTimeMillis() - start) + " ms");
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the available metrics. The built-in OQuaRE metrics are listed at
+ * compile time (in the order they are reported); further metrics are
+ * discovered with {@link ServiceLoader} from
+ * META-INF/services/ontology.metrics.OntologyMetric on the class path.
+ */
+public final class MetricRegistry {
+
+	/**
+	 * Version of the semantics of the built-in metrics, part of the key of every
+	 * {@link ResultCache} entry. It is incremented with every change of a metric
+	 * value in any mode, so results computed by an older implementation are not
+	 * returned from the cache:
+	 * <ol>
+	 * <li>initial metrics</li>
+	 * <li>WMCOnto2 and LCOMOnto aggregate the paths of all roots</li>
+	 * <li>ANOnto counts the annotations of all annotation properties</li>
+	 * <li>CROnto counts direct instances only</li>
+	 * <li>AROnto counts nested restrictions</li>
+	 * <li>AROnto does not count exact cardinalities</li>
+	 * <li>the streamed hierarchy has the classes, direct superclasses and roots
+	 * of the model</li>
+	 * <li>CROnto counts direct instances in the streaming mode too</li>
+	 * <li>the streaming mode does not keep the annotations of individuals</li>
+	 * </ol>
+	 */
+	public static final int SEMANTICS_VERSION = 9;
+
+	private static final List<Supplier<OntologyMetric>> BUILT_IN = Arrays.asList(LCOMOnto::new, WMCOnto2::new,
+			DITOnto::new, NACOnto::new, NOCOnto::new, CBOnto::new, RFCOnto::new, NOMOnto::new, RROnto::new,
+			PROnto::new, AROnto::new, INROnto::new, CROnto::new, ANOnto::new, TMOnto2::new, CPOnto::new,
+			AGOnto::new, EXOnto::new);
+
+	private MetricRegistry() {
+
+	}
+
+	/**
+	 * @return all available metrics by name, built-in metrics first
+	 */
+	public static Map<String, OntologyMetric> getMetrics() {
+		Map<String, OntologyMetric> metrics = new LinkedHashMap<>();
+		for (Supplier<OntologyMetric> metric : BUILT_IN) {
+			OntologyMetric m = metric.get();
+			metrics.put(m.getName(), m);
+		}
+		for (OntologyMetric m : ServiceLoader.load(OntologyMetric.class)) {
+			metrics.putIfAbsent(m.getName(), m);
+		}
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	/**
+	 * @param iNames
+	 *            names of the metrics
+	 * @return the metrics in the given order
+	 * @throws IllegalArgumentException
+	 *             if a metric is not available
+	 */
+	public static List<OntologyMetric> getMetrics(final List<String> iNames) {
+		Map<String, OntologyMetric> available = getMetrics();
+		List<OntologyMetric> metrics = new ArrayList<>();
+		for (String name : iNames) {
+			OntologyMetric m = available.get(name);
+			if (m == null)
+				throw new IllegalArgumentException("Unknown metric: " + name + ", available: " + available.keySet());
+			metrics.add(m);
+		}
+		return metrics;
+	}
+
+}
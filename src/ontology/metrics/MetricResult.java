@@ -0,0 +1,97 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable result of an ontology metric: the value and the numerator and
+ * denominator it was computed from. Additional counts reported by the metric
+ * (e.g. number of object properties) are kept as details.
+ */
+public final class MetricResult {
+
+	private final String name;
+	private final double value;
+	private final double numerator;
+	private final double denominator;
+	private final Map<String, Number> details;
+
+	/**
+	 * Result with value numerator / denominator.
+	 */
+	public MetricResult(String iName, double iNumerator, double iDenominator) {
+		this(iName, iNumerator / iDenominator, iNumerator, iDenominator, Collections.<String, Number>emptyMap());
+	}
+
+	/**
+	 * Result with value numerator / denominator and additional counts.
+	 */
+	public MetricResult(String iName, double iNumerator, double iDenominator, Map<String, Number> iDetails) {
+		this(iName, iNumerator / iDenominator, iNumerator, iDenominator, iDetails);
+	}
+
+	public MetricResult(String iName, double iValue, double iNumerator, double iDenominator,
+			Map<String, Number> iDetails) {
+		this.name = iName;
+		this.value = iValue;
+		this.numerator = iNumerator;
+		this.denominator = iDenominator;
+		this.details = Collections.unmodifiableMap(new LinkedHashMap<>(iDetails));
+	}
+
+	/**
+	 * @return name of the metric
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return value of the metric
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return numerator of the metric formula
+	 */
+	public double getNumerator() {
+		return numerator;
+	}
+
+	/**
+	 * @return denominator of the metric formula
+	 */
+	public double getDenominator() {
+		return denominator;
+	}
+
+	/**
+	 * @return additional counts reported by the metric (read-only)
+	 */
+	public Map<String, Number> getDetails() {
+		return details;
+	}
+
+	@Override
+	public String toString() {
+		return name + "=" + value + " (" + numerator + "/" + denominator + ")" + (details.isEmpty() ? "" : " " + details);
+	}
+
+}
@@ -0,0 +1,259 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.apache.jena.ontology.OntModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs independent metrics concurrently. Metrics and the intermediate results
+ * they share (hierarchy, path statistics, namespace histogram, property
+ * domains, restrictions) form a dependency DAG: every intermediate is computed
+ * exactly once and a metric starts as soon as the intermediates it reads are
+ * available. Ready tasks are started in the order of their estimated cost
+ * including the cost of the tasks waiting for them (critical path first), so
+ * the longest running metrics start first.
+ * 
+ * The metrics share one {@link OntModel}, but the node cache of a Jena model
+ * (EnhGraph) is not thread-safe. The tasks therefore read the model only
+ * through {@link OntologyIndex#getOntologyModel()}, which gives every worker
+ * thread its own view of the graph, and the intermediates of the index. The
+ * view is dropped at the end of every task.
+ */
+public class MetricScheduler {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final int parallelism;
+
+	/**
+	 * @param iParallelism
+	 *            number of threads used to run the metrics
+	 */
+	public MetricScheduler(int iParallelism) {
+		this.parallelism = Math.max(1, iParallelism);
+	}
+
+	/**
+	 * Runs the metrics on the ontology index and waits until all of them
+	 * finished.
+	 * 
+	 * @param iIndex
+	 *            ontology index
+	 * @param iMetrics
+	 *            metrics to run
+	 * @return results of the metrics that succeeded, in the order of the given
+	 *         metrics
+	 * @throws InterruptedException
+	 */
+	public Map<String, MetricResult> run(final OntologyIndex iIndex, final List<OntologyMetric> iMetrics)
+			throws InterruptedException {
+		return run(iIndex, iMetrics, null);
+	}
+
+	/**
+	 * Runs the metrics on the ontology index and waits until all of them
+	 * finished. Every intermediate and every metric is measured by the
+	 * instrumentation.
+	 * 
+	 * @param iIndex
+	 *            ontology index
+	 * @param iMetrics
+	 *            metrics to run
+	 * @param iInstrumentation
+	 *            instrumentation of the evaluation, may be null
+	 * @return results of the metrics that succeeded, in the order of the given
+	 *         metrics
+	 * @throws InterruptedException
+	 */
+	public Map<String, MetricResult> run(final OntologyIndex iIndex, final List<OntologyMetric> iMetrics,
+			final Instrumentation iInstrumentation) throws InterruptedException {
+		Map<String, MetricResult> results = new ConcurrentHashMap<>();
+
+		// build the DAG with only the intermediates that are needed
+		Map<Intermediate, Task> intermediates = new EnumMap<>(Intermediate.class);
+		List<Task> tasks = new ArrayList<>();
+		for (OntologyMetric metric : iMetrics) {
+			Task task = new Task(Instrumentation.METRIC, metric.getName(), metric.getEstimatedCost(), () -> {
+				MetricResult result = metric.compute(iIndex);
+				results.put(metric.getName(), result);
+				return result;
+			});
+			for (Intermediate intermediate : metric.getIntermediates()) {
+				dependOn(task, intermediate, iIndex, intermediates, tasks);
+			}
+			tasks.add(task);
+		}
+		for (Task task : tasks) {
+			task.computePriority();
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>());
+		CountDownLatch done = new CountDownLatch(tasks.size());
+		AtomicReference<Error> error = new AtomicReference<>();
+		try {
+			for (Task task : tasks) {
+				task.executor = executor;
+				task.done = done;
+				task.error = error;
+				task.instrumentation = iInstrumentation;
+				task.index = iIndex;
+			}
+			for (Task task : tasks) {
+				if (task.pending.get() == 0)
+					executor.execute(task);
+			}
+			done.await();
+		} finally {
+			executor.shutdownNow();
+		}
+		// e.g. OutOfMemoryError, the JVM state is not reliable any more
+		if (error.get() != null)
+			throw error.get();
+
+		Map<String, MetricResult> ordered = new LinkedHashMap<>();
+		for (OntologyMetric metric : iMetrics) {
+			MetricResult result = results.get(metric.getName());
+			if (result != null)
+				ordered.put(metric.getName(), result);
+		}
+		return ordered;
+	}
+
+	private static void dependOn(Task iTask, Intermediate iIntermediate, OntologyIndex iIndex,
+			Map<Intermediate, Task> iIntermediates, List<Task> iTasks) {
+		Task intermediate = iIntermediates.get(iIntermediate);
+		if (intermediate == null) {
+			intermediate = new Task(Instrumentation.INTERMEDIATE, iIntermediate.name(), iIntermediate.cost, () -> {
+				iIntermediate.compute(iIndex);
+				return null;
+			});
+			iIntermediates.put(iIntermediate, intermediate);
+			for (Intermediate dependency : iIntermediate.getDependencies()) {
+				dependOn(intermediate, dependency, iIndex, iIntermediates, iTasks);
+			}
+			iTasks.add(intermediate);
+		}
+		intermediate.dependents.add(iTask);
+		iTask.pending.incrementAndGet();
+	}
+
+	/**
+	 * A node of the DAG, started when all of its dependencies are done.
+	 */
+	private static class Task implements Runnable, Comparable<Task> {
+		final String kind;
+		final String name;
+		final int cost;
+		// returns the result of a metric, null for an intermediate
+		final Supplier<MetricResult> action;
+		final List<Task> dependents = new ArrayList<>();
+		final AtomicInteger pending = new AtomicInteger();
+		// own cost plus the cost of the most expensive chain of dependents
+		long priority = -1;
+
+		ThreadPoolExecutor executor;
+		CountDownLatch done;
+		AtomicReference<Error> error;
+		Instrumentation instrumentation;
+		OntologyIndex index;
+
+		Task(String iKind, String iName, int iCost, Supplier<MetricResult> iAction) {
+			this.kind = iKind;
+			this.name = iName;
+			this.cost = iCost;
+			this.action = iAction;
+		}
+
+		long computePriority() {
+			if (priority < 0) {
+				long max = 0;
+				for (Task dependent : dependents) {
+					max = Math.max(max, dependent.computePriority());
+				}
+				priority = cost + max;
+			}
+			return priority;
+		}
+
+		@Override
+		public void run() {
+			boolean ok = false;
+			MetricResult result = null;
+			Instrumentation.Span span = (instrumentation == null) ? null : instrumentation.start(kind, name);
+			try {
+				if (logger.isDebugEnabled())
+					logger.debug("Started: " + name);
+				result = action.get();
+				ok = true;
+			} catch (RuntimeException e) {
+				logger.error("Failed: " + name, e);
+			} catch (Error e) {
+				error.compareAndSet(null, e);
+				throw e;
+			} finally {
+				index.releaseView();
+				if (span != null)
+					span.end(ok, result);
+				done.countDown();
+				// the dependents are released or skipped also after an Error,
+				// otherwise run() would wait for them forever
+				if (ok) {
+					for (Task dependent : dependents) {
+						if (dependent.pending.decrementAndGet() == 0)
+							executor.execute(dependent);
+					}
+				} else {
+					for (Task dependent : dependents) {
+						dependent.skip(name);
+					}
+				}
+			}
+		}
+
+		// the task cannot run because the intermediate it depends on failed
+		void skip(String iFailed) {
+			if (pending.getAndSet(-1) < 0)
+				return;
+			logger.error("Skipped: " + name + " (" + iFailed + " failed)");
+			done.countDown();
+			for (Task dependent : dependents) {
+				dependent.skip(iFailed);
+			}
+		}
+
+		@Override
+		public int compareTo(Task iOther) {
+			return Long.compare(iOther.priority, priority);
+		}
+	}
+
+}
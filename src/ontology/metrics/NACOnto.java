@@ -15,13 +15,8 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.Collections;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,69 +30,55 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class NACOnto {
+public class NACOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public NACOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-
-		logger.info("NACOnto - Number of Ancestor Concepts");
-
-		// find all concepts in the ontology
-		final List<OntClass> leafConcepts = findLeafConcepts(ontologyModel);
-
-		// get number of direct ancestors for leafs
-		int nalc = getNumberOfAllAncestors(leafConcepts);
-
-		double naconto = (double) nalc / leafConcepts.size();
+	@Override
+	public String getName() {
+		return "NACOnto";
+	}
 
-		logger.info("Number of all leaf concepts: " + leafConcepts.size());
-		logger.info("Number of all direct ancestors of leafs: " + nalc);
-		logger.info("NACOnto: " + naconto);
-		logger.info("*********************************************");
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		return compute(index.getCompactHierarchy());
+	}
 
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findLeafConcepts(final OntModel model) {
-		final List<OntClass> results = new ArrayList<OntClass>();
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
+	}
 
-		final ExtendedIterator<OntClass> concepts = model.listClasses();
-		while (concepts.hasNext()) {
-			OntClass aConcept = (OntClass) concepts.next();
-			if (aConcept.listSubClasses(true).toList().size() == 0) {
-				// logger.info("LEAF: " + aConcept.getLocalName());
-				results.add(aConcept);
+	private MetricResult compute(final CompactHierarchy hierarchy) {
+		int nlc = 0;
+		int nalc = 0;
+		for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+			if (hierarchy.isLeaf(aConcept)) {
+				nlc++;
+				nalc += hierarchy.getSuperClassCount(aConcept);
 			}
 		}
 
-		return results;
+		return getNACOnto(nlc, nalc);
 	}
 
-	/**
-	 * The method finds all concepts with more than one parent in the ontology
-	 * 
-	 * @param iOntologyModel
-	 * @return Hashmap of all concepts with more than one parent in the ontology
-	 *         including corresponding number of parents
-	 * @author Andrej Tibaut
-	 */
-	public int getNumberOfAllAncestors(final List<OntClass> iConcepts) {
-		int na = 0;
+	private MetricResult getNACOnto(int nlc, int nalc) {
+		logger.info("*********************************************");
 
-		ListIterator<OntClass> liConcepts = iConcepts.listIterator();
-		while (liConcepts.hasNext()) {
-			OntClass ontClass = (OntClass) liConcepts.next();
-			// get only direct parent concepts (=true)
-			na += ontClass.listSuperClasses(true).toList().size();
-		}
-		return na;
+		logger.info("NACOnto - Number of Ancestor Concepts");
+
+		double naconto = (double) nalc / nlc;
+
+		logger.info("Number of all leaf concepts: " + nlc);
+		logger.info("Number of all direct ancestors of leafs: " + nalc);
+		logger.info("NACOnto: " + naconto);
+		logger.info("*********************************************");
+
+		return new MetricResult(getName(), naconto, nalc, nlc, Collections.<String, Number>emptyMap());
 	}
 
 }
\ No newline at end of file
@@ -15,12 +15,10 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,25 +33,51 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class NOCOnto {
+public class NOCOnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public NOCOnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
+	@Override
+	public String getName() {
+		return "NOCOnto";
+	}
 
-		logger.info("NOCOnto (Number of Children Concepts");
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		return compute(index.getCompactHierarchy());
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
+	}
 
-		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
-		int nc = allConcepts.size();
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
+	}
+
+	private MetricResult compute(final CompactHierarchy hierarchy) {
+		int nc = 0;
+		int nsc = 0;
+		int nlc = 0;
+		for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+			if (hierarchy.isNamedConcept(aConcept)) {
+				nc++;
+				nsc += hierarchy.getSubClassCount(aConcept);
+				if (hierarchy.isLeaf(aConcept))
+					nlc++;
+			}
+		}
 
-		// get number of all direct subconcepts in the ontology
-		int nsc = getNumberOfSubconcepts(allConcepts);
+		return getNOCOnto(nc, nsc, nlc);
+	}
+
+	private MetricResult getNOCOnto(int nc, int nsc, int nlc) {
+		logger.info("*********************************************");
 
-		// get number of all leaf concepts in the ontology
-		int nlc = getNumberOfLeafConcepts(allConcepts);
+		logger.info("NOCOnto (Number of Children Concepts");
 
-		double noconto = (double) nsc / (allConcepts.size() - nlc);
+		double noconto = (double) nsc / (nc - nlc);
 
 		logger.info("Number of all concepts: " + nc);
 		logger.info("Number of all direct subconcepts: " + nsc);
@@ -61,58 +85,10 @@ public class NOCOnto {
 		logger.info("NOCOnto: " + noconto);
 		logger.info("*********************************************");
 
-	}
-
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
-	}
-
-	/**
-	 * The method finds all direct subconcepts for the given list of concepts
-	 * 
-	 * @param iConcepts
-	 *            list of all ontology concepts
-	 * @return List of subconcepts
-	 * @author Andrej Tibaut
-	 */
-	public int getNumberOfSubconcepts(final List<OntClass> iConcepts) {
-		int nsc = 0; // number of subconcepts
-
-		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntClass> iter = aConcept.listSubClasses(true);
-			if (iter.hasNext())
-				nsc += iter.toList().size();
-		}
-
-		return nsc;
-	}
-
-	/**
-	 * The method finds all direct properties for the given list of concepts
-	 * 
-	 * @param iConcepts
-	 *            list of all ontology concepts
-	 * @return List of subconcepts
-	 * @author Andrej Tibaut
-	 */
-	public int getNumberOfLeafConcepts(final List<OntClass> iConcepts) {
-		int nlc = 0; // number of leaf concepts
-
-		for (OntClass aConcept : iConcepts) {
-
-			if (aConcept.listSubClasses(true).toList().size() == 0)
-				nlc++;
-		}
-
-		return nlc;
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("concepts", nc);
+		details.put("leafConcepts", nlc);
+		return new MetricResult(getName(), noconto, nsc, nc - nlc, details);
 	}
 
 	public static int getNumSubclasses(final Resource klass) {
@@ -15,12 +15,10 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.OntProperty;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,19 +32,35 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class NOMOnto {
+public class NOMOnto implements OntologyMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public NOMOnto(OntModel ontologyModel) {
+	@Override
+	public String getName() {
+		return "NOMOnto";
+	}
+
+	@Override
+	public int getEstimatedCost() {
+		return 2;
+	}
+
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.PROPERTY_DOMAINS);
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		logger.info("*********************************************");
 		logger.info("NOMOnto - Number of properties");
 
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
 		// get number of all properties in the ontology
-		int np = getNumberOfUsagesOfDirectProperties(allConcepts);
+		int np = getNumberOfUsagesOfDirectProperties(index, allConcepts);
 
 		double nomonto = (double) np / nc;
 
@@ -55,47 +69,26 @@ public class NOMOnto {
 		logger.info("NOMOnto: " + nomonto);
 		logger.info("*********************************************");
 
+		return new MetricResult(getName(), nomonto, np, nc, Collections.<String, Number>emptyMap());
 	}
 
 	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
-	}
-
-	public int getNumberOfSubconcepts(final List<OntClass> iConcepts) {
-		int nsc = 0; // number of subconcepts
-
-		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntClass> iter = aConcept.listSubClasses(true);
-			if (iter.hasNext())
-				nsc += iter.toList().size();
-		}
-
-		return nsc;
-	}
-
-	/**
-	 * The method finds all direct properties for the given list of concepts
+	 * The method counts all direct properties for the given list of concepts
+	 * using the property domain index
 	 * 
+	 * @param iIndex
+	 *            ontology index
 	 * @param iConcepts
 	 *            list of all ontology concepts
-	 * @return List of subconcepts
+	 * @return number of direct properties
 	 * @author Andrej Tibaut
 	 */
-	public int getNumberOfUsagesOfDirectProperties(final List<OntClass> iConcepts) {
-		int np = 0; // number of subconcepts
+	public int getNumberOfUsagesOfDirectProperties(final OntologyIndex iIndex, final List<OntClass> iConcepts) {
+		final PropertyDomainIndex domains = iIndex.getPropertyDomains();
+		int np = 0;
 
 		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntProperty> iter = aConcept.listDeclaredProperties(true);
-			if (iter.hasNext())
-				np += iter.toList().size();
+			np += domains.getDeclaredPropertyCount(iIndex.getId(aConcept));
 		}
 
 		return np;
@@ -0,0 +1,268 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Namespace usage histogram of an ontology. All statements are scanned once and
+ * the usage of URI resources is counted per namespace, separately for the
+ * subject, predicate and object position of the statements. The usage of a
+ * declared namespace (prefix) is then the sum over all namespaces starting with
+ * it, so the cost no longer grows with the number of declared prefixes times
+ * the number of statements. Used by CPOnto, AGOnto and EXOnto.
+ * 
+ * The counters of a URI node seen before are found by one hash lookup, the
+ * namespace of a node is only split once.
+ */
+public class NamespaceHistogram {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	public static final int SUBJECT = 0;
+	public static final int PREDICATE = 1;
+	public static final int OBJECT = 2;
+
+	// the node cache is cleared when it grows beyond
+	private static final int CACHE_SIZE = 1 << 16;
+
+	// namespace -> occurrences in subject, predicate, object position
+	private final Map<String, long[]> histogram = new HashMap<>();
+	// URI node -> counters of its namespace
+	private final Map<Node, long[]> nodes = new HashMap<>();
+
+	public NamespaceHistogram(final OntModel iOntologyModel) {
+		long start = System.currentTimeMillis();
+
+		StmtIterator iter = iOntologyModel.listStatements((Resource) null, (Property) null, (RDFNode) null);
+		while (iter.hasNext()) {
+			add(iter.nextStatement().asTriple());
+		}
+
+		logger.info("Namespace histogram built in " + (System.currentTimeMillis() - start) + " ms (namespaces: "
+				+ histogram.size() + ")");
+	}
+
+	/**
+	 * Creates an empty histogram, filled triple by triple with
+	 * {@link #add(Triple)} (streaming evaluation).
+	 */
+	public NamespaceHistogram() {
+
+	}
+
+	/**
+	 * Counts the URI nodes of the triple.
+	 * 
+	 * @param iTriple
+	 *            a triple
+	 */
+	public void add(final Triple iTriple) {
+		count(iTriple, 1);
+	}
+
+	/**
+	 * Uncounts the URI nodes of a removed triple, a namespace is dropped when it
+	 * is not used any more.
+	 * 
+	 * @param iTriple
+	 *            a triple counted before
+	 */
+	public void remove(final Triple iTriple) {
+		count(iTriple, -1);
+	}
+
+	private void count(final Triple iTriple, final int iDelta) {
+		if (iTriple.getSubject().isURI())
+			count(iTriple.getSubject(), SUBJECT, iDelta);
+		if (iTriple.getPredicate().isURI())
+			count(iTriple.getPredicate(), PREDICATE, iDelta);
+		if (iTriple.getObject().isURI())
+			count(iTriple.getObject(), OBJECT, iDelta);
+	}
+
+	private void count(final Node iNode, final int iPosition, final int iDelta) {
+		long[] counts = nodes.get(iNode);
+		if (counts == null) {
+			counts = count(iNode.getNameSpace(), iPosition, iDelta);
+			if (counts != null) {
+				if (nodes.size() >= CACHE_SIZE)
+					nodes.clear();
+				nodes.put(iNode, counts);
+			}
+			return;
+		}
+		counts[iPosition] += iDelta;
+		if (iDelta < 0 && isUnused(counts)) {
+			// the cached counters of the namespace are dropped with it
+			histogram.remove(iNode.getNameSpace());
+			nodes.clear();
+		}
+	}
+
+	/**
+	 * Adds the counts of the other histogram (e.g. of another chunk of the same
+	 * file).
+	 * 
+	 * @param iOther
+	 *            another histogram
+	 */
+	public void merge(final NamespaceHistogram iOther) {
+		for (Map.Entry<String, long[]> entry : iOther.histogram.entrySet()) {
+			long[] counts = histogram.get(entry.getKey());
+			if (counts == null) {
+				counts = new long[3];
+				histogram.put(entry.getKey(), counts);
+			}
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] += entry.getValue()[i];
+			}
+		}
+	}
+
+	// counters of the namespace, null if the namespace is not used any more
+	private long[] count(final String iNS, final int iPosition, final int iDelta) {
+		long[] counts = histogram.get(iNS);
+		if (counts == null) {
+			counts = new long[3];
+			histogram.put(iNS, counts);
+		}
+		counts[iPosition] += iDelta;
+		if (isUnused(counts)) {
+			histogram.remove(iNS);
+			nodes.clear();
+			return null;
+		}
+		return counts;
+	}
+
+	private static boolean isUnused(final long[] iCounts) {
+		return iCounts[SUBJECT] <= 0 && iCounts[PREDICATE] <= 0 && iCounts[OBJECT] <= 0;
+	}
+
+	/**
+	 * @return namespace -> occurrences in subject, predicate and object position
+	 *         (indexed by SUBJECT, PREDICATE, OBJECT)
+	 */
+	public Map<String, long[]> getHistogram() {
+		return Collections.unmodifiableMap(histogram);
+	}
+
+	/**
+	 * Counts the usage of resources from the namespace in the given position of
+	 * all statements.
+	 * 
+	 * @param iNS
+	 *            a namespace (prefix URI)
+	 * @param iPosition
+	 *            SUBJECT, PREDICATE or OBJECT
+	 * @return number of resources
+	 */
+	public long getNumOfNSResources(final String iNS, final int iPosition) {
+		long n = 0;
+		for (Map.Entry<String, long[]> entry : histogram.entrySet()) {
+			if (entry.getKey().startsWith(iNS))
+				n += entry.getValue()[iPosition];
+		}
+		return n;
+	}
+
+	/**
+	 * Counts the usage of resources from the namespace in subjects, predicates
+	 * and objects of all statements.
+	 * 
+	 * @param iNS
+	 *            a namespace (prefix URI)
+	 * @return number of resources
+	 */
+	public long getNumOfNSResources(final String iNS) {
+		long n = 0;
+		for (Map.Entry<String, long[]> entry : histogram.entrySet()) {
+			if (entry.getKey().startsWith(iNS)) {
+				long[] counts = entry.getValue();
+				n += counts[SUBJECT] + counts[PREDICATE] + counts[OBJECT];
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Counts the usage of resources of all declared namespaces in subjects,
+	 * predicates and objects of all statements. Every used namespace is resolved
+	 * once, instead of a comparison of every used namespace with every declared
+	 * one.
+	 * 
+	 * @param iResolver
+	 *            resolver of the declared namespaces
+	 * @return declared namespace -> number of resources, only the used
+	 *         namespaces
+	 */
+	public Map<String, Long> getNumOfNSResources(final NamespaceResolver iResolver) {
+		Map<String, Long> usage = new HashMap<>();
+		for (Map.Entry<String, long[]> entry : histogram.entrySet()) {
+			NamespaceResolver.Resolution resolution = iResolver.resolveNamespace(entry.getKey());
+			long[] counts = entry.getValue();
+			long n = counts[SUBJECT] + counts[PREDICATE] + counts[OBJECT];
+			for (int i = 0; i < resolution.size(); i++) {
+				usage.merge(resolution.get(i), n, Long::sum);
+			}
+		}
+		return usage;
+	}
+
+	/**
+	 * The method checks if the resource is internal
+	 * 
+	 * @param iResourceURI
+	 *            resource URI
+	 * @param iBaseNS
+	 *            base URI, null if unknown
+	 * @return true or false
+	 * @author Andrej Tibaut
+	 */
+	public static boolean isBaseResource(String iResourceURI, String iBaseNS) {
+
+		return (iBaseNS != null && iResourceURI.startsWith(iBaseNS));
+
+	}
+
+	/**
+	 * The method checks if the resource belongs to one of the default (must-have)
+	 * ontology namespaces (XML, OWL, XSD, RDF, RDFS)
+	 * 
+	 * @param iResourceURI
+	 *            resource URI
+	 * @return true or false
+	 * @author Andrej Tibaut
+	 */
+	public static boolean isDefaultResource(String iResourceURI) {
+
+		return NamespaceResolver.isStandard(iResourceURI);
+
+	}
+
+}
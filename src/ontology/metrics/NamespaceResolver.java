@@ -0,0 +1,263 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.rdf.model.impl.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves IRIs to the namespaces of an ontology. The base namespace, the
+ * declared namespaces and the standard W3C namespaces (XML, OWL, XSD, RDF,
+ * RDFS) are kept in a prefix trie, so an IRI is classified in one walk over its
+ * characters instead of a startsWith per namespace. The result of a URI node is
+ * cached, a node seen before is resolved by one hash lookup.
+ * 
+ * An IRI belongs to a declared namespace (and to the base namespace) if its
+ * namespace part (Node.getNameSpace()) starts with it; it is a standard
+ * resource if the IRI starts with a standard namespace. The resolver is not
+ * thread safe, every thread needs its own instance.
+ */
+public class NamespaceResolver {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private static final String[] STANDARD_NAMESPACES = { "http://www.w3.org/XML/1998/namespace",
+			"http://www.w3.org/2002/07/owl#", "http://www.w3.org/2003/05/owl-xml", "http://www.w3.org/2001/XMLSchema#",
+			"http://www.w3.org/1999/02/22-rdf-syntax-ns#", "http://www.w3.org/2000/01/rdf-schema#" };
+
+	private static final NamespaceResolver STANDARD = new NamespaceResolver(null, Arrays.<String>asList());
+
+	// the cache is cleared when it grows beyond, the number of distinct IRIs of
+	// instance data is not bounded
+	private static final int CACHE_SIZE = 1 << 16;
+
+	private final TrieNode root = new TrieNode();
+	private final Map<Node, Resolution> cache = new HashMap<>();
+
+	/**
+	 * @param iBaseNS
+	 *            base namespace, null if unknown
+	 * @param iNamespaces
+	 *            declared namespaces (e.g. the values of the prefix map)
+	 */
+	public NamespaceResolver(final String iBaseNS, final Collection<String> iNamespaces) {
+		for (String ns : STANDARD_NAMESPACES) {
+			insert(ns).standard = true;
+		}
+		for (String ns : iNamespaces) {
+			if (ns != null)
+				insert(ns).namespace = ns;
+		}
+		if (iBaseNS != null) {
+			TrieNode node = insert(iBaseNS);
+			node.namespace = iBaseNS;
+			node.base = true;
+		}
+		prepare(root, Resolution.NONE);
+	}
+
+	/**
+	 * @param iIRI
+	 *            an IRI or a namespace
+	 * @return true if the IRI belongs to one of the standard (must-have)
+	 *         ontology namespaces (XML, OWL, XSD, RDF, RDFS)
+	 */
+	public static boolean isStandard(final String iIRI) {
+		return STANDARD.resolve(iIRI, iIRI.length()).isStandard();
+	}
+
+	private TrieNode insert(final String iNS) {
+		TrieNode node = root;
+		for (int i = 0; i < iNS.length(); i++) {
+			node = node.child(iNS.charAt(i), true);
+		}
+		return node;
+	}
+
+	// resolutions of every node: the declared namespaces on the path from the
+	// root, shortest first
+	private static void prepare(final TrieNode iNode, final Resolution iParent) {
+		Resolution resolution = iParent;
+		if (iNode.namespace != null) {
+			String[] namespaces = Arrays.copyOf(iParent.namespaces, iParent.namespaces.length + 1);
+			namespaces[namespaces.length - 1] = iNode.namespace;
+			resolution = new Resolution(iParent.base || iNode.base, false, namespaces);
+		}
+		iNode.resolution = resolution;
+		iNode.standardResolution = new Resolution(resolution.base, true, resolution.namespaces);
+		for (int i = 0; i < iNode.size; i++) {
+			prepare(iNode.children[i], resolution);
+		}
+	}
+
+	/**
+	 * Resolves a URI node, the result is cached per node.
+	 * 
+	 * @param iNode
+	 *            a node
+	 * @return namespaces of the node, {@link Resolution#NONE} for blank nodes and
+	 *         literals
+	 */
+	public Resolution resolve(final Node iNode) {
+		if (!iNode.isURI())
+			return Resolution.NONE;
+		Resolution resolution = cache.get(iNode);
+		if (resolution == null) {
+			String iri = iNode.getURI();
+			resolution = resolve(iri, Util.splitNamespaceXML(iri));
+			if (cache.size() >= CACHE_SIZE)
+				cache.clear();
+			cache.put(iNode, resolution);
+		}
+		return resolution;
+	}
+
+	/**
+	 * Resolves a namespace, e.g. a key of the {@link NamespaceHistogram}.
+	 * 
+	 * @param iNS
+	 *            a namespace
+	 * @return declared namespaces the namespace starts with
+	 */
+	public Resolution resolveNamespace(final String iNS) {
+		return resolve(iNS, iNS.length());
+	}
+
+	/**
+	 * One walk over the IRI: declared namespaces are matched in the namespace
+	 * part (up to iSplit), standard namespaces in the whole IRI.
+	 */
+	private Resolution resolve(final String iIRI, final int iSplit) {
+		TrieNode node = root;
+		TrieNode declared = root;
+		boolean standard = false;
+		for (int i = 0; i < iIRI.length(); i++) {
+			node = node.child(iIRI.charAt(i), false);
+			if (node == null)
+				break;
+			if (i < iSplit && node.namespace != null)
+				declared = node;
+			if (node.standard)
+				standard = true;
+		}
+		return standard ? declared.standardResolution : declared.resolution;
+	}
+
+	/**
+	 * Namespaces of an IRI. The instances are shared, resolving does not allocate.
+	 */
+	public static class Resolution {
+		static final Resolution NONE = new Resolution(false, false, new String[0]);
+
+		private final boolean base;
+		private final boolean standard;
+		private final String[] namespaces;
+
+		private Resolution(final boolean iBase, final boolean iStandard, final String[] iNamespaces) {
+			this.base = iBase;
+			this.standard = iStandard;
+			this.namespaces = iNamespaces;
+		}
+
+		/**
+		 * @return true if the IRI belongs to the base namespace
+		 */
+		public boolean isBase() {
+			return base;
+		}
+
+		/**
+		 * @return true if the IRI belongs to one of the standard namespaces
+		 */
+		public boolean isStandard() {
+			return standard;
+		}
+
+		/**
+		 * @return true if the IRI belongs to a declared namespace which is
+		 *         neither the base nor a standard namespace
+		 */
+		public boolean isExternal() {
+			return !base && !standard && namespaces.length > 0;
+		}
+
+		/**
+		 * @return the longest declared namespace of the IRI, null if none
+		 */
+		public String getNamespace() {
+			return (namespaces.length == 0) ? null : namespaces[namespaces.length - 1];
+		}
+
+		/**
+		 * @return all declared namespaces the IRI belongs to, shortest first
+		 */
+		public List<String> getNamespaces() {
+			return new ArrayList<>(Arrays.asList(namespaces));
+		}
+
+		int size() {
+			return namespaces.length;
+		}
+
+		String get(final int iIndex) {
+			return namespaces[iIndex];
+		}
+	}
+
+	/**
+	 * A node of the trie, the children are kept in parallel arrays (few
+	 * children per node, the namespaces share long prefixes).
+	 */
+	private static class TrieNode {
+		char[] keys = new char[1];
+		TrieNode[] children = new TrieNode[1];
+		int size;
+
+		// set if a namespace ends here
+		String namespace;
+		boolean base;
+		boolean standard;
+
+		Resolution resolution;
+		Resolution standardResolution;
+
+		TrieNode child(final char iKey, final boolean iCreate) {
+			for (int i = 0; i < size; i++) {
+				if (keys[i] == iKey)
+					return children[i];
+			}
+			if (!iCreate)
+				return null;
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				children = Arrays.copyOf(children, size * 2);
+			}
+			TrieNode child = new TrieNode();
+			keys[size] = iKey;
+			children[size++] = child;
+			return child;
+		}
+	}
+
+}
@@ -0,0 +1,472 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.Random;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.XSD;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generator of synthetic ontologies for scaling studies. The same options and
+ * seed give the same ontology. The generated ontology has the constructs the
+ * metrics read:
+ * <ul>
+ * <li>a subsumption hierarchy of the given number of classes, depth and
+ * branching factor (paths for LCOMOnto, WMCOnto2, DITOnto), with a share of
+ * classes having a second superclass from a higher level (TMOnto2, no
+ * cycles)</li>
+ * <li>owl:Restrictions (owl:someValuesFrom, owl:allValuesFrom, owl:hasValue,
+ * owl:minCardinality, owl:maxCardinality) in rdfs:subClassOf of the classes
+ * (AROnto, PROnto)</li>
+ * <li>object and data properties with a domain and a range (RROnto, NOMOnto,
+ * RFCOnto)</li>
+ * <li>individuals typed with the classes, each with property assertions
+ * (CROnto, PROnto)</li>
+ * <li>a label per class (ANOnto)</li>
+ * <li>external namespaces with prefixes, a share of the restriction fillers
+ * and of the property ranges are classes of the external namespaces (CPOnto,
+ * AGOnto, EXOnto)</li>
+ * </ul>
+ * 
+ * N-Triples, N-Quads and Turtle are written as the triples are generated, so
+ * millions of triples can be generated with a small heap; RDF/XML is collected
+ * in a graph first.
+ */
+public class OntologyGenerator {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	// classes of an external namespace
+	private static final int EXTERNAL_CLASSES = 100;
+
+	private String baseNS = "http://example.org/generated#";
+	private int classes = 1000;
+	private int depth = 6;
+	private int branching = 4;
+	private double multipleInheritance = 0.1;
+	private double restrictions = 0.5;
+	private int objectProperties = 20;
+	private int dataProperties = 10;
+	private int individuals = 100;
+	private int externalNamespaces = 2;
+	private double externalRate = 0.1;
+	private long seed = 42;
+
+	// state of the current generation
+	private Random random;
+	private StreamRDF out;
+	private long triples;
+
+	/**
+	 * @param iBaseNS
+	 *            namespace of the generated resources (default
+	 *            http://example.org/generated#)
+	 * @return this generator
+	 */
+	public OntologyGenerator setBaseNS(final String iBaseNS) {
+		this.baseNS = iBaseNS;
+		return this;
+	}
+
+	/**
+	 * @param iClasses
+	 *            number of classes (default 1000)
+	 * @return this generator
+	 */
+	public OntologyGenerator setClasses(final int iClasses) {
+		this.classes = iClasses;
+		return this;
+	}
+
+	/**
+	 * @param iDepth
+	 *            number of levels of the hierarchy (default 6)
+	 * @return this generator
+	 */
+	public OntologyGenerator setDepth(final int iDepth) {
+		this.depth = iDepth;
+		return this;
+	}
+
+	/**
+	 * @param iBranching
+	 *            number of direct subclasses of a class until the depth is
+	 *            reached, the remaining classes are spread over the inner levels
+	 *            (default 4)
+	 * @return this generator
+	 */
+	public OntologyGenerator setBranching(final int iBranching) {
+		this.branching = iBranching;
+		return this;
+	}
+
+	/**
+	 * @param iRate
+	 *            share of the classes with a second superclass (default 0.1)
+	 * @return this generator
+	 */
+	public OntologyGenerator setMultipleInheritance(final double iRate) {
+		this.multipleInheritance = iRate;
+		return this;
+	}
+
+	/**
+	 * @param iRestrictions
+	 *            average number of restrictions per class (default 0.5)
+	 * @return this generator
+	 */
+	public OntologyGenerator setRestrictions(final double iRestrictions) {
+		this.restrictions = iRestrictions;
+		return this;
+	}
+
+	/**
+	 * @param iObjectProperties
+	 *            number of object properties (default 20)
+	 * @param iDataProperties
+	 *            number of data properties (default 10)
+	 * @return this generator
+	 */
+	public OntologyGenerator setProperties(final int iObjectProperties, final int iDataProperties) {
+		this.objectProperties = iObjectProperties;
+		this.dataProperties = iDataProperties;
+		return this;
+	}
+
+	/**
+	 * @param iIndividuals
+	 *            number of individuals (default 100)
+	 * @return this generator
+	 */
+	public OntologyGenerator setIndividuals(final int iIndividuals) {
+		this.individuals = iIndividuals;
+		return this;
+	}
+
+	/**
+	 * @param iNamespaces
+	 *            number of external namespaces (default 2)
+	 * @param iRate
+	 *            share of the restriction fillers and property ranges from the
+	 *            external namespaces (default 0.1)
+	 * @return this generator
+	 */
+	public OntologyGenerator setExternal(final int iNamespaces, final double iRate) {
+		this.externalNamespaces = iNamespaces;
+		this.externalRate = iRate;
+		return this;
+	}
+
+	/**
+	 * @param iSeed
+	 *            seed of the random generator (default 42)
+	 * @return this generator
+	 */
+	public OntologyGenerator setSeed(final long iSeed) {
+		this.seed = iSeed;
+		return this;
+	}
+
+	/**
+	 * Writes the ontology to the file, the syntax is given by the file extension
+	 * (N-Triples if unknown).
+	 * 
+	 * @param iFile
+	 *            file name
+	 * @return number of triples written
+	 * @throws IOException
+	 */
+	public long write(final String iFile) throws IOException {
+		Lang lang = RDFLanguages.filenameToLang(iFile, Lang.NTRIPLES);
+		try (OutputStream os = new BufferedOutputStream(new FileOutputStream(iFile), 1 << 16)) {
+			return write(os, lang);
+		}
+	}
+
+	/**
+	 * Writes the ontology.
+	 * 
+	 * @param iOut
+	 *            output stream
+	 * @param iLang
+	 *            RDF syntax
+	 * @return number of triples written
+	 */
+	public synchronized long write(final OutputStream iOut, final Lang iLang) {
+		long start = System.currentTimeMillis();
+		Graph graph = null;
+		if (StreamRDFWriter.registered(iLang)) {
+			out = StreamRDFWriter.getWriterStream(iOut, iLang);
+		} else {
+			graph = GraphFactory.createDefaultGraph();
+			out = StreamRDFLib.graph(graph);
+		}
+		random = new Random(seed);
+		triples = 0;
+
+		out.start();
+		generate();
+		out.finish();
+		if (Lang.RDFXML.equals(iLang))
+			RDFDataMgr.write(iOut, graph, RDFFormat.RDFXML_PLAIN);
+		else if (graph != null)
+			RDFDataMgr.write(iOut, graph, iLang);
+		out = null;
+
+		logger.info("Generated " + triples + " triples in " + (System.currentTimeMillis() - start) + " ms (classes: "
+				+ classes + ", individuals: " + individuals + ")");
+		return triples;
+	}
+
+	private void generate() {
+		out.prefix("", baseNS);
+		out.prefix("rdf", RDF.getURI());
+		out.prefix("rdfs", RDFS.getURI());
+		out.prefix("owl", OWL.getURI());
+		out.prefix("xsd", XSD.getURI());
+		for (int k = 0; k < externalNamespaces; k++) {
+			out.prefix("ext" + k, external(k));
+		}
+		String ontologyURI = baseNS.endsWith("#") ? baseNS.substring(0, baseNS.length() - 1) : baseNS;
+		triple(NodeFactory.createURI(ontologyURI), RDF.type.asNode(), OWL.Ontology.asNode());
+
+		// hierarchy, breadth first: every class gets the given number of
+		// subclasses until the depth is reached
+		int[] parent = new int[classes];
+		int[] level = new int[classes];
+		int next = Math.min(1, classes);
+		for (int head = 0; head < next && next < classes; head++) {
+			if (level[head] >= depth - 1)
+				break;
+			for (int b = 0; b < branching && next < classes; b++) {
+				parent[next] = head;
+				level[next] = level[head] + 1;
+				next++;
+			}
+		}
+		// the remaining classes are subclasses of random inner classes (the inner
+		// classes come first in the breadth first order) or roots if the depth is
+		// 1
+		int inner = 0;
+		while (inner < next && level[inner] < depth - 1) {
+			inner++;
+		}
+		if (classes > 0)
+			parent[0] = -1;
+		for (; next < classes; next++) {
+			if (inner == 0) {
+				parent[next] = -1;
+			} else {
+				parent[next] = random.nextInt(inner);
+				level[next] = level[parent[next]] + 1;
+			}
+		}
+
+		for (int i = 0; i < classes; i++) {
+			Node c = node("Class", i);
+			triple(c, RDF.type.asNode(), OWL.Class.asNode());
+			triple(c, RDFS.label.asNode(), NodeFactory.createLiteral("Class " + i, "en"));
+			if (parent[i] >= 0)
+				triple(c, RDFS.subClassOf.asNode(), node("Class", parent[i]));
+			// a second superclass from a higher level, so there are no cycles
+			if (level[i] >= 2 && random.nextDouble() < multipleInheritance) {
+				for (int attempt = 0; attempt < 8; attempt++) {
+					int j = random.nextInt(i);
+					if (level[j] < level[i] && j != parent[i]) {
+						triple(c, RDFS.subClassOf.asNode(), node("Class", j));
+						break;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < objectProperties; i++) {
+			Node p = node("objectProperty", i);
+			triple(p, RDF.type.asNode(), OWL.ObjectProperty.asNode());
+			if (classes > 0) {
+				triple(p, RDFS.domain.asNode(), node("Class", random.nextInt(classes)));
+				triple(p, RDFS.range.asNode(), filler());
+			}
+		}
+		for (int i = 0; i < dataProperties; i++) {
+			Node p = node("dataProperty", i);
+			triple(p, RDF.type.asNode(), OWL.DatatypeProperty.asNode());
+			if (classes > 0)
+				triple(p, RDFS.domain.asNode(), node("Class", random.nextInt(classes)));
+			triple(p, RDFS.range.asNode(), XSD.xstring.asNode());
+		}
+
+		if (objectProperties + dataProperties > 0) {
+			long restriction = 0;
+			for (int i = 0; i < classes; i++) {
+				int n = (int) restrictions;
+				if (random.nextDouble() < restrictions - n)
+					n++;
+				for (int r = 0; r < n; r++) {
+					restriction(node("Class", i), NodeFactory.createBlankNode("r" + restriction++));
+				}
+			}
+		} else if (restrictions > 0) {
+			logger.warn("No properties, no restrictions generated");
+		}
+
+		for (int i = 0; i < individuals && classes > 0; i++) {
+			Node individual = node("Individual", i);
+			triple(individual, RDF.type.asNode(), node("Class", random.nextInt(classes)));
+			if (objectProperties > 0 && individuals > 1)
+				triple(individual, node("objectProperty", random.nextInt(objectProperties)),
+						node("Individual", random.nextInt(individuals)));
+			if (dataProperties > 0)
+				triple(individual, node("dataProperty", random.nextInt(dataProperties)),
+						NodeFactory.createLiteral("value " + i));
+		}
+	}
+
+	/**
+	 * One of the five restriction kinds the metrics count, as a superclass of the
+	 * class.
+	 */
+	private void restriction(final Node iClass, final Node iRestriction) {
+		triple(iClass, RDFS.subClassOf.asNode(), iRestriction);
+		triple(iRestriction, RDF.type.asNode(), OWL.Restriction.asNode());
+		int kind = random.nextInt(5);
+		// value restrictions on object properties, cardinalities on data properties
+		boolean onObject = (kind < 3 && objectProperties > 0) || dataProperties == 0;
+		Node property = onObject ? node("objectProperty", random.nextInt(objectProperties))
+				: node("dataProperty", random.nextInt(dataProperties));
+		triple(iRestriction, OWL.onProperty.asNode(), property);
+		switch (kind) {
+		case 0:
+			triple(iRestriction, OWL.someValuesFrom.asNode(), onObject ? filler() : XSD.xstring.asNode());
+			break;
+		case 1:
+			triple(iRestriction, OWL.allValuesFrom.asNode(), onObject ? filler() : XSD.xstring.asNode());
+			break;
+		case 2:
+			triple(iRestriction, OWL.hasValue.asNode(),
+					onObject && individuals > 0 ? node("Individual", random.nextInt(individuals))
+							: NodeFactory.createLiteral("value"));
+			break;
+		case 3:
+			triple(iRestriction, OWL.minCardinality.asNode(),
+					NodeFactory.createLiteral("1", XSDDatatype.XSDnonNegativeInteger));
+			break;
+		default:
+			triple(iRestriction, OWL.maxCardinality.asNode(),
+					NodeFactory.createLiteral(Integer.toString(1 + random.nextInt(3)),
+							XSDDatatype.XSDnonNegativeInteger));
+			break;
+		}
+	}
+
+	/**
+	 * @return a class of the ontology or, with the external rate, of an external
+	 *         namespace
+	 */
+	private Node filler() {
+		if (externalNamespaces > 0 && random.nextDouble() < externalRate)
+			return NodeFactory.createURI(
+					external(random.nextInt(externalNamespaces)) + "Class" + random.nextInt(EXTERNAL_CLASSES));
+		return node("Class", random.nextInt(classes));
+	}
+
+	private static String external(final int iNamespace) {
+		return "http://example.org/external" + iNamespace + "#";
+	}
+
+	private Node node(final String iName, final long iIndex) {
+		return NodeFactory.createURI(baseNS + iName + iIndex);
+	}
+
+	private void triple(final Node iSubject, final Node iPredicate, final Node iObject) {
+		out.triple(Triple.create(iSubject, iPredicate, iObject));
+		triples++;
+	}
+
+	/**
+	 * Generates an ontology, e.g. "-classes 100000 -depth 8 -branching 6
+	 * -individuals 50000 -seed 7 generated.nt".
+	 * 
+	 * @param args
+	 *            options and the output file
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		OntologyGenerator generator = new OntologyGenerator();
+		int objectProperties = generator.objectProperties;
+		int dataProperties = generator.dataProperties;
+		int externalNamespaces = generator.externalNamespaces;
+		double externalRate = generator.externalRate;
+		String file = null;
+		for (int i = 0; i < args.length; i++) {
+			if ("-base".equals(args[i]) && i + 1 < args.length) {
+				generator.setBaseNS(args[++i]);
+			} else if ("-classes".equals(args[i]) && i + 1 < args.length) {
+				generator.setClasses(Integer.parseInt(args[++i]));
+			} else if ("-depth".equals(args[i]) && i + 1 < args.length) {
+				generator.setDepth(Integer.parseInt(args[++i]));
+			} else if ("-branching".equals(args[i]) && i + 1 < args.length) {
+				generator.setBranching(Integer.parseInt(args[++i]));
+			} else if ("-multipleInheritance".equals(args[i]) && i + 1 < args.length) {
+				generator.setMultipleInheritance(Double.parseDouble(args[++i]));
+			} else if ("-restrictions".equals(args[i]) && i + 1 < args.length) {
+				generator.setRestrictions(Double.parseDouble(args[++i]));
+			} else if ("-objectProperties".equals(args[i]) && i + 1 < args.length) {
+				objectProperties = Integer.parseInt(args[++i]);
+			} else if ("-dataProperties".equals(args[i]) && i + 1 < args.length) {
+				dataProperties = Integer.parseInt(args[++i]);
+			} else if ("-individuals".equals(args[i]) && i + 1 < args.length) {
+				generator.setIndividuals(Integer.parseInt(args[++i]));
+			} else if ("-external".equals(args[i]) && i + 1 < args.length) {
+				externalNamespaces = Integer.parseInt(args[++i]);
+			} else if ("-externalRate".equals(args[i]) && i + 1 < args.length) {
+				externalRate = Double.parseDouble(args[++i]);
+			} else if ("-seed".equals(args[i]) && i + 1 < args.length) {
+				generator.setSeed(Long.parseLong(args[++i]));
+			} else {
+				file = args[i];
+			}
+		}
+		if (file == null) {
+			logger.error("Output file expected");
+			return;
+		}
+		generator.setProperties(objectProperties, dataProperties).setExternal(externalNamespaces, externalRate)
+				.write(file);
+	}
+
+}
@@ -0,0 +1,388 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntDocumentManager;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared view of the subsumption hierarchy of a loaded ontology. The index is
+ * created once per {@link OntModel} and then consumed by all metrics, so the
+ * (expensive) Jena calls listNamedClasses(), listClasses(),
+ * listHierarchyRootClasses(), listSubClasses(true) and listSuperClasses(true)
+ * are made only once per class.
+ *
+ * The index keeps the named concepts, all classes known to the model
+ * (including anonymous class expressions), the leaf set and the root set. Every
+ * class gets a dense int id; the direct sub- and superclass adjacency is kept
+ * in a {@link CompactHierarchy} (int arrays), on which the hierarchy metrics
+ * run without touching the Jena wrappers again. Every part of the index
+ * (hierarchy, path statistics, namespace histogram, property domains,
+ * restrictions) is computed exactly once on first use; independent parts can be
+ * computed concurrently and the index can be shared between threads. The node
+ * cache of a Jena model is not thread-safe, so a thread other than the one which
+ * created the index gets its own OntModel view of the same graph from
+ * {@link #getOntologyModel()}. The classes kept by the index belong to the view
+ * of the thread which built the hierarchy, other threads only read their
+ * nodes.
+ */
+public class OntologyIndex {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final OntModel ontologyModel;
+	private final Thread owner;
+	// Jena's EnhGraph node cache (CacheSimple) is not thread-safe
+	private final ThreadLocal<OntModel> views;
+
+	// computed on first use
+	private final Memo<Hierarchy> hierarchy = new Memo<>(() -> new Hierarchy(this));
+	private final Memo<NamespaceHistogram> namespaceHistogram = new Memo<>(
+			() -> new NamespaceHistogram(getOntologyModel()));
+	private final Memo<PropertyDomainIndex> propertyDomains = new Memo<>(() -> new PropertyDomainIndex(this));
+	private final Memo<RestrictionIndex> restrictions = new Memo<>(() -> new RestrictionIndex(this));
+
+	public OntologyIndex(final OntModel iOntologyModel) {
+		this.ontologyModel = iOntologyModel;
+		this.owner = Thread.currentThread();
+		this.views = ThreadLocal.withInitial(() -> createView(iOntologyModel));
+	}
+
+	/**
+	 * @return the ontology model the index was built from, for a thread other
+	 *         than the one which created the index a view of the same graph
+	 *         private to the thread
+	 */
+	public OntModel getOntologyModel() {
+		return (Thread.currentThread() == owner) ? ontologyModel : views.get();
+	}
+
+	/**
+	 * Drops the view of the current thread, e.g. at the end of a task of a
+	 * pooled thread, the thread would keep the view and the graph of the
+	 * ontology reachable otherwise.
+	 */
+	void releaseView() {
+		views.remove();
+	}
+
+	private static OntModel createView(final OntModel iOntologyModel) {
+		OntModelSpec spec = new OntModelSpec(iOntologyModel.getSpecification());
+		// the imports are already in the graph of the model
+		OntDocumentManager manager = new OntDocumentManager((String) null);
+		manager.setProcessImports(false);
+		spec.setDocumentManager(manager);
+		OntModel view = ModelFactory.createOntologyModel(spec, ModelFactory.createModelForGraph(iOntologyModel.getGraph()));
+		view.setStrictMode(iOntologyModel.strictMode());
+		return view;
+	}
+
+	/**
+	 * @return named concepts in the ontology (listNamedClasses())
+	 */
+	public List<OntClass> getNamedConcepts() {
+		return hierarchy.get().namedConcepts;
+	}
+
+	/**
+	 * @return all classes in the ontology including anonymous class expressions
+	 *         (listClasses())
+	 */
+	public List<OntClass> getAllClasses() {
+		return hierarchy.get().allClasses;
+	}
+
+	/**
+	 * @return hierarchy root classes, i.e. classes with owl:Thing as direct
+	 *         ancestor (listHierarchyRootClasses())
+	 */
+	public List<OntClass> getRootConcepts() {
+		return hierarchy.get().rootConcepts;
+	}
+
+	/**
+	 * @return all classes (including anonymous ones) without direct subclasses
+	 */
+	public List<OntClass> getLeafConcepts() {
+		return hierarchy.get().leafConcepts;
+	}
+
+	/**
+	 * @param iConcept
+	 *            a class
+	 * @return direct subclasses of the class
+	 */
+	public List<OntClass> getSubClasses(final OntClass iConcept) {
+		Hierarchy h = hierarchy.get();
+		Integer id = h.ids.get(iConcept);
+		return (id == null) ? Collections.<OntClass>emptyList() : new ClassList(h, id, true);
+	}
+
+	/**
+	 * @param iConcept
+	 *            a class
+	 * @return direct superclasses of the class
+	 */
+	public List<OntClass> getSuperClasses(final OntClass iConcept) {
+		Hierarchy h = hierarchy.get();
+		Integer id = h.ids.get(iConcept);
+		return (id == null) ? Collections.<OntClass>emptyList() : new ClassList(h, id, false);
+	}
+
+	/**
+	 * @return the subsumption hierarchy in int arrays, the ids are those of
+	 *         {@link #getId(OntClass)}
+	 */
+	public CompactHierarchy getCompactHierarchy() {
+		return hierarchy.get().compact;
+	}
+
+	/**
+	 * @param iConcept
+	 *            a class
+	 * @return id of the class in the {@link CompactHierarchy}, -1 if the class
+	 *         is not in the hierarchy
+	 */
+	public int getId(final OntClass iConcept) {
+		Integer id = hierarchy.get().ids.get(iConcept);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * @param iId
+	 *            id of a class in the {@link CompactHierarchy}
+	 * @return the class
+	 */
+	public OntClass getOntClass(final int iId) {
+		return hierarchy.get().classes.get(iId);
+	}
+
+	/**
+	 * @param iConcept
+	 *            a class
+	 * @return true if the class has no direct subclasses
+	 */
+	public boolean isLeaf(final OntClass iConcept) {
+		return getSubClasses(iConcept).isEmpty();
+	}
+
+	/**
+	 * @return namespace usage histogram of the ontology, computed once on first
+	 *         use
+	 */
+	public NamespaceHistogram getNamespaceHistogram() {
+		return namespaceHistogram.get();
+	}
+
+	/**
+	 * @return directly declared properties of every class, computed once on
+	 *         first use
+	 */
+	public PropertyDomainIndex getPropertyDomains() {
+		return propertyDomains.get();
+	}
+
+	/**
+	 * @return property restrictions of every class, computed once on first use
+	 */
+	public RestrictionIndex getRestrictions() {
+		return restrictions.get();
+	}
+
+	/**
+	 * The concepts of the ontology with their dense ids and the direct sub- and
+	 * superclass adjacency in a {@link CompactHierarchy}.
+	 */
+	private static class Hierarchy {
+		// named classes (owl:Class with URI)
+		final List<OntClass> namedConcepts;
+
+		// all classes including anonymous ones (restrictions, unions, ...)
+		final List<OntClass> allClasses;
+
+		// classes without rdfs:subClassOf to another class (direct subclasses of
+		// owl:Thing)
+		final List<OntClass> rootConcepts;
+
+		// classes without direct subclasses
+		final List<OntClass> leafConcepts;
+
+		// id -> class and class -> id
+		final List<OntClass> classes = new ArrayList<>();
+		final Map<OntClass, Integer> ids = new HashMap<>();
+
+		final CompactHierarchy compact;
+
+		Hierarchy(final OntologyIndex iIndex) {
+			final OntModel ontologyModel = iIndex.getOntologyModel();
+
+			long start = System.currentTimeMillis();
+
+			this.namedConcepts = Collections.unmodifiableList(ontologyModel.listNamedClasses().toList());
+			this.allClasses = Collections.unmodifiableList(ontologyModel.listClasses().toList());
+			this.rootConcepts = Collections.unmodifiableList(ontologyModel.listHierarchyRootClasses().toList());
+
+			// collect direct adjacency for all classes and for every class reachable
+			// from them (Jena may return classes as sub- or superclasses which are not
+			// listed by listClasses()); ids are given in the order of discovery, so
+			// the classes are visited breadth first in the order of their ids
+			Set<OntClass> seeds = new LinkedHashSet<>(allClasses);
+			seeds.addAll(namedConcepts);
+			seeds.addAll(rootConcepts);
+			for (OntClass aConcept : seeds) {
+				id(aConcept);
+			}
+			int[] subOffsets = new int[seeds.size() + 1];
+			int[] supOffsets = new int[seeds.size() + 1];
+			int[] subTargets = new int[seeds.size()];
+			int[] supTargets = new int[seeds.size()];
+			int nSubs = 0;
+			int nSups = 0;
+			for (int c = 0; c < classes.size(); c++) {
+				OntClass aConcept = classes.get(c);
+				if (c + 1 >= subOffsets.length) {
+					subOffsets = Arrays.copyOf(subOffsets, 2 * subOffsets.length);
+					supOffsets = Arrays.copyOf(supOffsets, 2 * supOffsets.length);
+				}
+				for (Iterator<OntClass> it = aConcept.listSubClasses(true); it.hasNext();) {
+					if (nSubs == subTargets.length)
+						subTargets = Arrays.copyOf(subTargets, 2 * nSubs + 1);
+					subTargets[nSubs++] = id(it.next());
+				}
+				for (Iterator<OntClass> it = aConcept.listSuperClasses(true); it.hasNext();) {
+					if (nSups == supTargets.length)
+						supTargets = Arrays.copyOf(supTargets, 2 * nSups + 1);
+					supTargets[nSups++] = id(it.next());
+				}
+				subOffsets[c + 1] = nSubs;
+				supOffsets[c + 1] = nSups;
+			}
+			int n = classes.size();
+
+			BitSet declared = new BitSet(n);
+			for (OntClass aConcept : allClasses) {
+				declared.set(ids.get(aConcept));
+			}
+			int[] roots = new int[rootConcepts.size()];
+			for (int i = 0; i < roots.length; i++) {
+				roots[i] = ids.get(rootConcepts.get(i));
+			}
+			List<Node> nodes = new ArrayList<>(n);
+			for (OntClass aConcept : classes) {
+				nodes.add(aConcept.asNode());
+			}
+			this.compact = new CompactHierarchy(nodes, declared, Arrays.copyOf(subOffsets, n + 1),
+					Arrays.copyOf(subTargets, nSubs), Arrays.copyOf(supOffsets, n + 1),
+					Arrays.copyOf(supTargets, nSups), roots);
+
+			List<OntClass> leafs = new ArrayList<>();
+			for (OntClass aConcept : allClasses) {
+				if (compact.getSubClassCount(ids.get(aConcept)) == 0)
+					leafs.add(aConcept);
+			}
+			this.leafConcepts = Collections.unmodifiableList(leafs);
+
+			logger.info("Ontology index built in " + (System.currentTimeMillis() - start) + " ms (named concepts: "
+					+ namedConcepts.size() + ", classes: " + allClasses.size() + ", indexed classes: " + n
+					+ ", subclass edges: " + nSubs + ")");
+		}
+
+		private int id(final OntClass iConcept) {
+			Integer id = ids.get(iConcept);
+			if (id == null) {
+				id = classes.size();
+				ids.put(iConcept, id);
+				classes.add(iConcept);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Read-only view of the direct sub- or superclasses of a class.
+	 */
+	private static class ClassList extends AbstractList<OntClass> {
+		private final Hierarchy hierarchy;
+		private final int id;
+		private final boolean sub;
+
+		ClassList(final Hierarchy iHierarchy, final int iId, final boolean iSub) {
+			this.hierarchy = iHierarchy;
+			this.id = iId;
+			this.sub = iSub;
+		}
+
+		@Override
+		public OntClass get(final int iIndex) {
+			CompactHierarchy compact = hierarchy.compact;
+			if (iIndex < 0 || iIndex >= size())
+				throw new IndexOutOfBoundsException("Index: " + iIndex + ", size: " + size());
+			return hierarchy.classes
+					.get(sub ? compact.getSubClass(id, iIndex) : compact.getSuperClass(id, iIndex));
+		}
+
+		@Override
+		public int size() {
+			return sub ? hierarchy.compact.getSubClassCount(id) : hierarchy.compact.getSuperClassCount(id);
+		}
+	}
+
+	/**
+	 * Value computed once on first use. Each value has its own lock, so
+	 * independent parts of the index can be computed concurrently.
+	 */
+	private static class Memo<T> {
+		private final Supplier<T> supplier;
+		private volatile T value;
+
+		Memo(final Supplier<T> iSupplier) {
+			this.supplier = iSupplier;
+		}
+
+		T get() {
+			T v = value;
+			if (v == null) {
+				synchronized (this) {
+					v = value;
+					if (v == null) {
+						v = supplier.get();
+						value = v;
+					}
+				}
+			}
+			return v;
+		}
+	}
+
+}
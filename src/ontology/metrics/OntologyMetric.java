@@ -0,0 +1,59 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ontology evaluation metric. Implementations are stateless, compute the
+ * metric from the shared {@link OntologyIndex} and return the value as an
+ * immutable {@link MetricResult}. The built-in metrics are listed in
+ * {@link MetricRegistry}; additional metrics can be registered through
+ * {@link java.util.ServiceLoader} (META-INF/services/ontology.metrics.OntologyMetric).
+ */
+public interface OntologyMetric {
+
+	/**
+	 * @return name of the metric, e.g. "LCOMOnto"
+	 */
+	String getName();
+
+	/**
+	 * Computes the metric.
+	 * 
+	 * @param iIndex
+	 *            ontology index
+	 * @return the result of the metric
+	 */
+	MetricResult compute(OntologyIndex iIndex);
+
+	/**
+	 * @return intermediate results of the index the metric reads, used by the
+	 *         scheduler to start the metric as soon as they are available
+	 */
+	default List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.HIERARCHY);
+	}
+
+	/**
+	 * @return estimated (relative) cost of the metric, used by the scheduler to
+	 *         start the longest running metrics first
+	 */
+	default int getEstimatedCost() {
+		return 1;
+	}
+
+}
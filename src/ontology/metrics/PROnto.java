@@ -16,8 +16,13 @@ package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.ontology.Individual;
 import org.apache.jena.ontology.OntClass;
 import org.apache.jena.ontology.OntModel;
@@ -27,7 +32,6 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,19 +51,29 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class PROnto {
+public class PROnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public PROnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("PROnto - Properties Richness");
+	@Override
+	public String getName() {
+		return "PROnto";
+	}
+
+	@Override
+	public int getEstimatedCost() {
+		return 15;
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		final OntModel ontologyModel = index.getOntologyModel();
 
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = ontologyModel.listNamedClasses().toList();
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
 		// get number of all subconcepts in the ontology
-		int nsc = getNumberOfSubconcepts(allConcepts);
+		int nsc = getNumberOfSubconcepts(index, allConcepts);
 
 		// get number of usage of direct data properties in the ontology
 		int nop = getNumberOfObjectProperties(ontologyModel);
@@ -67,21 +81,43 @@ public class PROnto {
 		// get number of usage of direct data properties in the ontology
 		int ndp = getNumberOfDataProperties(ontologyModel);
 
-		List<Resource> up = getNumberOfUsagesOfPropertiesInConcepts(ontologyModel);
+		long up = countUsagesOfPropertiesInConcepts(ontologyModel, allConcepts);
 		List<Resource> ui = getNumberOfUsagesOfPropertiesInIndividuals(ontologyModel);
 
-		double pronto = (double) (up.size() + ui.size()) / (nsc + nop + ndp);
+		return getPROnto(nc, nsc, nop, ndp, up, ui.size());
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return getPROnto(iState.getNumberOfNamedConcepts(), iState.getNumberOfSubConcepts(),
+				iState.getNumberOfObjectProperties(), iState.getNumberOfDataProperties(),
+				iState.getNumberOfUsagesOfPropertiesInConcepts(), iState.getNumberOfUsagesOfPropertiesInIndividuals());
+	}
+
+	private MetricResult getPROnto(int nc, int nsc, int nop, int ndp, long up, long ui) {
+		logger.info("*********************************************");
+		logger.info("PROnto - Properties Richness");
+
+		double pronto = (double) (up + ui) / (nsc + nop + ndp);
 
 		logger.info("Number of all concepts: " + nc);
 		logger.info("Number of all subconcepts: " + nsc);
 		logger.info("Number of object properties: " + nop);
 		logger.info("Number of data properties: " + ndp);
 
-		logger.info("Number of all usages object and data properties in concepts: " + up.size());
-		logger.info("Number of all usages of object and data properties in individuals: " + ui.size());
+		logger.info("Number of all usages object and data properties in concepts: " + up);
+		logger.info("Number of all usages of object and data properties in individuals: " + ui);
 
 		logger.info("PROnto: " + pronto);
 		logger.info("*********************************************");
+
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("usagesInConcepts", up);
+		details.put("usagesInIndividuals", ui);
+		details.put("subconcepts", nsc);
+		details.put("objectProperties", nop);
+		details.put("dataProperties", ndp);
+		return new MetricResult(getName(), pronto, up + ui, nsc + nop + ndp, details);
 	}
 
 	/**
@@ -91,13 +127,11 @@ public class PROnto {
 	 * @return Number of direct subconcepts in the ontology
 	 * @author Andrej Tibaut
 	 */
-	public int getNumberOfSubconcepts(final List<OntClass> iConcepts) {
+	public int getNumberOfSubconcepts(final OntologyIndex iIndex, final List<OntClass> iConcepts) {
 		int nsc = 0; // number of subconcepts
 
 		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntClass> iter = aConcept.listSubClasses(true);
-			if (iter.hasNext())
-				nsc += iter.toList().size();
+			nsc += iIndex.getSubClasses(aConcept).size();
 		}
 
 		return nsc;
@@ -112,21 +146,26 @@ public class PROnto {
 	 */
 	public static List<Resource> getNumberOfUsagesOfPropertiesInIndividuals(final OntModel iOntologyModel) {
 		List<Resource> retList = new ArrayList<>();
+		// no message is built per statement when debug is off
+		final boolean debug = logger.isDebugEnabled();
 
 		List<Individual> individuals = iOntologyModel.listIndividuals().toList();
 		String ns = iOntologyModel.getNsPrefixURI("");
 
 		for (Individual aIndividual : individuals) {
-			logger.debug("Individual: " + aIndividual.getURI());
+			if (debug)
+				logger.debug("Individual: " + aIndividual.getURI());
 			StmtIterator iter = iOntologyModel.listStatements(aIndividual, (Property) null, (RDFNode) null);
 			while (iter.hasNext()) {
 				Statement s = iter.nextStatement();
-				logger.debug("Ind.Statement: " + s);
+				if (debug)
+					logger.debug("Ind.Statement: " + s);
 
 				if (s.getPredicate() instanceof Property) {
 					Property r = s.getPredicate();
 					if (r.isURIResource() && r.getNameSpace().startsWith(ns)) {
-						logger.debug(">Ind.Property: " + r.toString());
+						if (debug)
+							logger.debug(">Ind.Property: " + r.toString());
 						retList.add(r);
 					}
 				}
@@ -139,78 +178,33 @@ public class PROnto {
 	}
 
 	/**
-	 * The method searches all uses of object and data properties in concept (class)
-	 * axioms
+	 * The method counts all uses of object and data properties in concept (class)
+	 * axioms. Each class expression is walked once, also when it is shared by
+	 * several concepts (see ClassExpressionWalker).
 	 * 
 	 * @param iOntologyModel
-	 * @return list of resources
+	 * @param iConcepts
+	 *            named concepts of the ontology
+	 * @return number of usages
 	 * @author Andrej Tibaut
 	 */
-	public static List<Resource> getNumberOfUsagesOfPropertiesInConcepts(final OntModel iOntologyModel) {
-		List<Resource> retList = new ArrayList<>();
-
-		List<OntClass> concepts = iOntologyModel.listNamedClasses().toList();
-
-		for (OntClass aConcept : concepts) {
-			logger.debug("Class: " + aConcept.getURI());
-			StmtIterator iter = iOntologyModel.listStatements(aConcept, (Property) null, (RDFNode) null);
-			while (iter.hasNext()) {
-				Statement s = iter.nextStatement();
-				logger.debug(">Class.Statement: " + s);
-
-				if (s.getObject() instanceof Resource) {
-					Resource r = (Resource) s.getObject();
-					if (!r.isURIResource()) {
-						List<Resource> nodeList = getUsedPropertyResources(iOntologyModel, r);
-						retList.addAll(nodeList);
-					}
-				} else { // is a literal
-					// Axion, for example
-					// [http://www.co-ode.org/ontologies/pizza/pizza.owl#Mushroom,
-					// http://www.w3.org/2004/02/skos/core#prefLabel, "Mushroom"@en] where literal
-					// is "Mushroom@en"
-					logger.debug(">Class.Literal: " + s.getObject());
-				}
-
-			}
-		}
-		logger.debug("All used properties: " + retList);
-
-		return retList;
-
-	}
-
-	/**
-	 * The method searches direct subconcepts for each concept
-	 * 
-	 * @param iOntologyModel
-	 * @return Number of direct subconcepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<Resource> getUsedPropertyResources(final OntModel iOntologyModel, Resource iResource) {
-		List<Resource> retList = new ArrayList<>();
-
-		if (iResource.isURIResource()) {
-			if (iResource.canAs(OntProperty.class)) {
-				OntProperty op = iResource.as(OntProperty.class);
-				logger.debug(">>Property: " + op.toString());
-				retList.add(op);
-			}
-		} else {
-			StmtIterator it = iOntologyModel.listStatements(iResource, (Property) null, (RDFNode) null);
-			while (it.hasNext()) {
-				Statement st = it.nextStatement();
-				if (st.getObject() instanceof Resource) {
-					Resource r = (Resource) st.getObject();
-					List<Resource> nodeList = getUsedPropertyResources(iOntologyModel, r);
-					retList.addAll(nodeList);
-				}
-
-			}
+	public static long countUsagesOfPropertiesInConcepts(final OntModel iOntologyModel,
+			final List<OntClass> iConcepts) {
+		final Graph graph = iOntologyModel.getGraph();
+		ClassExpressionWalker walker = new ClassExpressionWalker(
+				aNode -> graph.find(aNode, Node.ANY, Node.ANY).mapWith(Triple::getObject)
+						.filterDrop(Node::isLiteral),
+				aNode -> iOntologyModel.asRDFNode(aNode).canAs(OntProperty.class));
+
+		long n = 0;
+		for (OntClass aConcept : iConcepts) {
+			long up = walker.countExpressions(aConcept.asNode());
+			if (logger.isDebugEnabled())
+				logger.debug("Class: " + aConcept.getURI() + " uses properties " + up + " times");
+			n += up;
 		}
 
-		return retList;
-
+		return n;
 	}
 
 	/**
@@ -0,0 +1,239 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.ReasonerVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directly declared properties of every class, the result of
+ * OntClass.listDeclaredProperties(true) computed for all classes at once. The
+ * domains of each property are read once, instead of all properties being
+ * tested against the hierarchy for each class. As in Jena (without a
+ * reasoner):
+ * 
+ * <ul>
+ * <li>the properties are the resources typed as one of the RDF and OWL
+ * property types, except the terms of the OWL, RDF and RDFS namespaces,</li>
+ * <li>owl:Thing and rdfs:Resource are ignored as domains,</li>
+ * <li>a property with a domain is declared on a class which is one of its
+ * domains and a subclass (transitively) of all the others,</li>
+ * <li>a property without a domain (global) is declared on every hierarchy root
+ * (a class with no superclass other than owl:Thing and rdfs:Resource).</li>
+ * </ul>
+ * 
+ * Properties are kept per class id of the {@link CompactHierarchy} in offset
+ * and target arrays, the global properties only once.
+ */
+public class PropertyDomainIndex {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private static final Set<String> IGNORED_NAMESPACES = new HashSet<>(
+			Arrays.asList(OWL.NS, RDF.getURI(), RDFS.getURI(), ReasonerVocabulary.RBNamespace));
+
+	private static final Resource[] PROPERTY_TYPES = { RDF.Property, OWL.ObjectProperty, OWL.DatatypeProperty,
+			OWL.FunctionalProperty, OWL.InverseFunctionalProperty, OWL.SymmetricProperty, OWL.TransitiveProperty,
+			OWL.AnnotationProperty };
+
+	private final CompactHierarchy hierarchy;
+	// roots as in OntClass.isHierarchyRoot()
+	private final BitSet roots;
+	private final List<Node> global = new ArrayList<>();
+	// class id -> properties with the class in the domain
+	private final int[] offsets;
+	private final Node[] properties;
+
+	/**
+	 * @param iIndex
+	 *            ontology index
+	 */
+	public PropertyDomainIndex(final OntologyIndex iIndex) {
+		long start = System.currentTimeMillis();
+		final Graph graph = iIndex.getOntologyModel().getGraph();
+		this.hierarchy = iIndex.getCompactHierarchy();
+		final int n = hierarchy.getSize();
+
+		Map<Node, Integer> ids = new HashMap<>();
+		for (int c = 0; c < n; c++) {
+			ids.put(hierarchy.getNode(c), c);
+		}
+
+		Set<Node> candidates = new LinkedHashSet<>();
+		for (Resource aType : PROPERTY_TYPES) {
+			ExtendedIterator<Triple> it = graph.find(Node.ANY, RDF.type.asNode(), aType.asNode());
+			while (it.hasNext()) {
+				Node p = it.next().getSubject();
+				if (p.isURI() && !IGNORED_NAMESPACES.contains(p.getNameSpace()))
+					candidates.add(p);
+			}
+		}
+
+		// (class id, property) pairs
+		int[] owners = new int[16];
+		Node[] declared = new Node[16];
+		int m = 0;
+		Set<Node> domains = new LinkedHashSet<>();
+		for (Node p : candidates) {
+			domains.clear();
+			ExtendedIterator<Triple> it = graph.find(p, RDFS.domain.asNode(), Node.ANY);
+			while (it.hasNext()) {
+				Node domain = it.next().getObject();
+				if (!domain.isLiteral() && !OWL.Thing.asNode().equals(domain)
+						&& !RDFS.Resource.asNode().equals(domain))
+					domains.add(domain);
+			}
+			if (domains.isEmpty()) {
+				global.add(p);
+				continue;
+			}
+			for (Node aDomain : domains) {
+				Integer c = ids.get(aDomain);
+				if (c != null && isSubClassOfAll(c, domains, ids)) {
+					if (m == owners.length) {
+						owners = Arrays.copyOf(owners, 2 * m);
+						declared = Arrays.copyOf(declared, 2 * m);
+					}
+					owners[m] = c;
+					declared[m++] = p;
+				}
+			}
+		}
+
+		this.offsets = new int[n + 1];
+		for (int i = 0; i < m; i++) {
+			offsets[owners[i] + 1]++;
+		}
+		for (int c = 0; c < n; c++) {
+			offsets[c + 1] += offsets[c];
+		}
+		this.properties = new Node[m];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int i = 0; i < m; i++) {
+			properties[next[owners[i]]++] = declared[i];
+		}
+
+		this.roots = new BitSet(n);
+		for (int c = 0; c < n; c++) {
+			if (isHierarchyRoot(c))
+				roots.set(c);
+		}
+
+		logger.info("Property domain index built in " + (System.currentTimeMillis() - start) + " ms (properties: "
+				+ candidates.size() + ", global: " + global.size() + ")");
+	}
+
+	/**
+	 * @param iClass
+	 *            class id in the hierarchy
+	 * @return number of properties declared directly on the class
+	 */
+	public int getDeclaredPropertyCount(final int iClass) {
+		return offsets[iClass + 1] - offsets[iClass] + (roots.get(iClass) ? global.size() : 0);
+	}
+
+	/**
+	 * @param iClass
+	 *            class id in the hierarchy
+	 * @return properties declared directly on the class
+	 */
+	public List<Node> getDeclaredProperties(final int iClass) {
+		final int from = offsets[iClass];
+		final int local = offsets[iClass + 1] - from;
+		final List<Node> globals = roots.get(iClass) ? global : Collections.<Node>emptyList();
+		return new AbstractList<Node>() {
+			@Override
+			public Node get(int iIndex) {
+				return (iIndex < local) ? properties[from + iIndex] : globals.get(iIndex - local);
+			}
+
+			@Override
+			public int size() {
+				return local + globals.size();
+			}
+		};
+	}
+
+	/**
+	 * @return properties without a domain
+	 */
+	public List<Node> getGlobalProperties() {
+		return Collections.unmodifiableList(global);
+	}
+
+	private boolean isSubClassOfAll(final int iClass, final Set<Node> iDomains, final Map<Node, Integer> iIds) {
+		if (iDomains.size() == 1)
+			return true;
+
+		// superclasses of the class, searched upwards as Jena does without a reasoner
+		BitSet ancestors = new BitSet(hierarchy.getSize());
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = iClass;
+		while (top > 0) {
+			int c = stack[--top];
+			for (int k = 0; k < hierarchy.getSuperClassCount(c); k++) {
+				int sup = hierarchy.getSuperClass(c, k);
+				if (!ancestors.get(sup)) {
+					ancestors.set(sup);
+					if (top == stack.length)
+						stack = Arrays.copyOf(stack, 2 * top);
+					stack[top++] = sup;
+				}
+			}
+		}
+
+		for (Node aDomain : iDomains) {
+			Integer d = iIds.get(aDomain);
+			if (d == null || (d != iClass && !ancestors.get(d)))
+				return false;
+		}
+		return true;
+	}
+
+	private boolean isHierarchyRoot(final int iClass) {
+		Node node = hierarchy.getNode(iClass);
+		if (OWL.Nothing.asNode().equals(node))
+			return false;
+		for (int k = 0; k < hierarchy.getSuperClassCount(iClass); k++) {
+			Node sup = hierarchy.getNode(hierarchy.getSuperClass(iClass, k));
+			if (!(OWL.Thing.asNode().equals(sup) || RDFS.Resource.asNode().equals(sup) || node.equals(sup)))
+				return false;
+		}
+		return true;
+	}
+
+}
@@ -15,15 +15,15 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.OntProperty;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,23 +37,39 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class RFCOnto {
+public class RFCOnto implements OntologyMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public RFCOnto(OntModel ontologyModel) {
+	@Override
+	public String getName() {
+		return "RFCOnto";
+	}
+
+	@Override
+	public int getEstimatedCost() {
+		return 3;
+	}
+
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.PROPERTY_DOMAINS);
+	}
+
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		logger.info("*********************************************");
 
 		logger.info("RFCOnto - Response for a concept");
 
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 
 		// get number of all properties in the ontology
-		int npro = getNumberOfDirectUsagesOfProperties(allConcepts);
+		int npro = getNumberOfDirectUsagesOfProperties(index, allConcepts);
 
 		// Find all subClass concepts (classes) in the graph
 		int npar = 0;
-		final HashMap<OntClass, Integer> cwp = findAllParents(allConcepts);
+		final HashMap<OntClass, Integer> cwp = findAllParents(index, allConcepts);
 		for (Iterator<Integer> itr = cwp.values().iterator(); itr.hasNext();) {
 			npar = npar + itr.next();
 		}
@@ -67,35 +83,29 @@ public class RFCOnto {
 		logger.info("TMOnto2: " + tmonto2);
 		logger.info("*********************************************");
 
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("properties", npro);
+		details.put("parents", npar);
+		return new MetricResult(getName(), tmonto2, npro + npar, allConcepts.size(), details);
 	}
 
 	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
-	}
-
-	/**
-	 * The method finds all direct properties for the given list of concepts
+	 * The method counts all direct properties for the given list of concepts
+	 * using the property domain index
 	 * 
+	 * @param iIndex
+	 *            ontology index
 	 * @param iConcepts
 	 *            list of all ontology concepts
-	 * @return List of subconcepts
+	 * @return number of direct properties
 	 * @author Andrej Tibaut
 	 */
-	public int getNumberOfDirectUsagesOfProperties(final List<OntClass> iConcepts) {
-		int np = 0; // number of subconcepts
+	public int getNumberOfDirectUsagesOfProperties(final OntologyIndex iIndex, final List<OntClass> iConcepts) {
+		final PropertyDomainIndex domains = iIndex.getPropertyDomains();
+		int np = 0;
 
 		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntProperty> iter = aConcept.listDeclaredProperties(true);
-			if (iter.hasNext())
-				np += iter.toList().size();
+			np += domains.getDeclaredPropertyCount(iIndex.getId(aConcept));
 		}
 
 		return np;
@@ -104,12 +114,15 @@ public class RFCOnto {
 	/**
 	 * The method finds all concepts with more than one parent in the ontology
 	 * 
-	 * @param iOntologyModel
+	 * @param iIndex
+	 *            ontology index
+	 * @param iConcepts
 	 * @return Hashmap of all concepts with more than one parent in the ontology
 	 *         including corresponding number of parents
 	 * @author Andrej Tibaut
 	 */
-	public static HashMap<OntClass, Integer> findAllParents(final List<OntClass> iConcepts) {
+	public static HashMap<OntClass, Integer> findAllParents(final OntologyIndex iIndex,
+			final List<OntClass> iConcepts) {
 		int i = 0;
 		final HashMap<OntClass, Integer> results = new HashMap<OntClass, Integer>();
 
@@ -118,8 +131,8 @@ public class RFCOnto {
 		while (liConcepts.hasNext()) {
 			OntClass ontClass = (OntClass) liConcepts.next();
 			if (ontClass.getURI() != null) {
-				// get only direct parent concepts (=true)
-				final List<OntClass> parents = ontClass.listSuperClasses(true).toList();
+				// get only direct parent concepts
+				final List<OntClass> parents = iIndex.getSuperClasses(ontClass);
 				if (parents.size() > 0) {
 					i++;
 					for (OntClass p : parents) {
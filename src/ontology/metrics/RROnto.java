@@ -15,12 +15,13 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.jena.ontology.OntClass;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,25 +37,41 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class RROnto {
+public class RROnto implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public RROnto(OntModel ontologyModel) {
-		logger.info("*********************************************");
-		logger.info("RROnto - Relationship Richness");
+	@Override
+	public String getName() {
+		return "RROnto";
+	}
 
+	@Override
+	public MetricResult compute(OntologyIndex index) {
 		// find all concepts in the ontology
-		final List<OntClass> allConcepts = findAllConcepts(ontologyModel);
+		final List<OntClass> allConcepts = index.getNamedConcepts();
 		int nc = allConcepts.size();
 
 		// get number of all subconcepts in the ontology
-		int nsc = getNumberOfSubconcepts(allConcepts);
+		int nsc = getNumberOfSubconcepts(index, allConcepts);
 
 		// get number of usage for object properties in the ontology
-		int nop = getNumberOfObjectProperties(ontologyModel);
+		int nop = getNumberOfObjectProperties(index.getOntologyModel());
 
 		// get number of usage for data properties in the ontology
-		int ndp = getNumberOfDataProperties(ontologyModel);
+		int ndp = getNumberOfDataProperties(index.getOntologyModel());
+
+		return getRROnto(nc, nsc, nop, ndp);
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return getRROnto(iState.getNumberOfNamedConcepts(), iState.getNumberOfSubConcepts(),
+				iState.getNumberOfObjectProperties(), iState.getNumberOfDataProperties());
+	}
+
+	private MetricResult getRROnto(int nc, int nsc, int nop, int ndp) {
+		logger.info("*********************************************");
+		logger.info("RROnto - Relationship Richness");
 
 		double rronto = (double) nsc / (double) (nsc + nop + ndp);
 
@@ -65,18 +82,11 @@ public class RROnto {
 		logger.info("RROnto: " + rronto);
 		logger.info("*********************************************");
 
-	}
-
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findAllConcepts(final OntModel iOntologyModel) {
-
-		return iOntologyModel.listNamedClasses().toList();
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("subconcepts", nsc);
+		details.put("objectProperties", nop);
+		details.put("dataProperties", ndp);
+		return new MetricResult(getName(), rronto, nsc, nsc + nop + ndp, details);
 	}
 
 	/**
@@ -87,13 +97,11 @@ public class RROnto {
 	 * @return List of subconcepts
 	 * @author Andrej Tibaut
 	 */
-	public int getNumberOfSubconcepts(final List<OntClass> iConcepts) {
+	public int getNumberOfSubconcepts(final OntologyIndex iIndex, final List<OntClass> iConcepts) {
 		int nsc = 0; // number of subconcepts
 
 		for (OntClass aConcept : iConcepts) {
-			ExtendedIterator<OntClass> iter = aConcept.listSubClasses(true);
-			if (iter.hasNext())
-				nsc += iter.toList().size();
+			nsc += iIndex.getSubClasses(aConcept).size();
 		}
 
 		return nsc;
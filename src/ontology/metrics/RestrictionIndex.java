@@ -0,0 +1,260 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.OWL2;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Property restrictions of the classes, built with one scan of the
+ * owl:onProperty statements. Every restriction is classified by its kind and
+ * mapped back to the classes which reference it by rdfs:subClassOf or
+ * owl:equivalentClass, directly or through (nested) owl:intersectionOf lists.
+ * A restriction is counted once per class, also when the class reaches it on
+ * several ways. Restrictions of other kinds (e.g. owl:hasSelf) are not
+ * counted.
+ */
+public class RestrictionIndex {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	/**
+	 * Kinds of property restrictions, the qualified cardinalities are counted
+	 * with the unqualified ones.
+	 */
+	public enum Kind {
+		SOME_VALUES_FROM("someValuesFrom", OWL.someValuesFrom),
+		ALL_VALUES_FROM("allValuesFrom", OWL.allValuesFrom),
+		HAS_VALUE("hasValue", OWL.hasValue),
+		MIN_CARDINALITY("minCardinality", OWL.minCardinality, OWL2.minQualifiedCardinality),
+		MAX_CARDINALITY("maxCardinality", OWL.maxCardinality, OWL2.maxQualifiedCardinality),
+		EXACT_CARDINALITY("cardinality", OWL.cardinality, OWL2.qualifiedCardinality);
+
+		private final String label;
+		private final Property[] predicates;
+
+		Kind(final String iLabel, final Property... iPredicates) {
+			this.label = iLabel;
+			this.predicates = iPredicates;
+		}
+
+		/**
+		 * @return local name of the OWL term
+		 */
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	// predicates linking a class to the class expressions it is defined by
+	private static final Set<Node> DEFINITIONS = new HashSet<>(Arrays.asList(RDFS.subClassOf.asNode(),
+			OWL.equivalentClass.asNode(), OWL.intersectionOf.asNode()));
+	// predicates linking an anonymous class expression or a list cell to its
+	// parts (a blank subclass is a general axiom, not a definition)
+	private static final Set<Node> PARTS = new HashSet<>(Arrays.asList(OWL.equivalentClass.asNode(),
+			OWL.intersectionOf.asNode(), RDF.first.asNode(), RDF.rest.asNode()));
+
+	private final Map<Node, Kind> kinds = new HashMap<>();
+	// class id -> number of restrictions per kind
+	private final int[][] counts;
+	// blank node -> classes defined by it
+	private final Map<Node, Set<Node>> owners = new HashMap<>();
+
+	/**
+	 * @param iIndex
+	 *            ontology index
+	 */
+	public RestrictionIndex(final OntologyIndex iIndex) {
+		long start = System.currentTimeMillis();
+		final Graph graph = iIndex.getOntologyModel().getGraph();
+		final CompactHierarchy hierarchy = iIndex.getCompactHierarchy();
+
+		Map<Node, Kind> byPredicate = new HashMap<>();
+		for (Kind aKind : Kind.values()) {
+			for (Property aPredicate : aKind.predicates) {
+				byPredicate.put(aPredicate.asNode(), aKind);
+			}
+		}
+		Map<Node, Integer> ids = new HashMap<>();
+		for (int c = 0; c < hierarchy.getSize(); c++) {
+			ids.put(hierarchy.getNode(c), c);
+		}
+
+		this.counts = new int[Kind.values().length][hierarchy.getSize()];
+		ExtendedIterator<Triple> it = graph.find(Node.ANY, OWL.onProperty.asNode(), Node.ANY);
+		try {
+			while (it.hasNext()) {
+				Node restriction = it.next().getSubject();
+				if (kinds.containsKey(restriction))
+					continue; // the same statement in several graphs
+				Kind kind = classify(graph, restriction, byPredicate);
+				kinds.put(restriction, kind);
+				if (kind == null)
+					continue;
+				for (Node aClass : findOwners(graph, restriction)) {
+					Integer c = ids.get(aClass);
+					if (c != null)
+						counts[kind.ordinal()][c]++;
+				}
+			}
+		} finally {
+			it.close();
+		}
+		owners.clear();
+
+		logger.info("Restriction index built in " + (System.currentTimeMillis() - start) + " ms (restrictions: "
+				+ kinds.size() + ")");
+	}
+
+	/**
+	 * @param iClass
+	 *            class id in the hierarchy
+	 * @return number of restrictions of the class
+	 */
+	public int getRestrictionCount(final int iClass) {
+		int n = 0;
+		for (int[] aCounts : counts) {
+			n += aCounts[iClass];
+		}
+		return n;
+	}
+
+	/**
+	 * @param iClass
+	 *            class id in the hierarchy
+	 * @param iKind
+	 *            kind of restrictions
+	 * @return number of restrictions of the kind of the class
+	 */
+	public int getRestrictionCount(final int iClass, final Kind iKind) {
+		return counts[iKind.ordinal()][iClass];
+	}
+
+	/**
+	 * @return number of restriction nodes (with owl:onProperty) in the ontology
+	 */
+	public int getSize() {
+		return kinds.size();
+	}
+
+	private static Kind classify(final Graph iGraph, final Node iRestriction, final Map<Node, Kind> iKinds) {
+		ExtendedIterator<Triple> it = iGraph.find(iRestriction, Node.ANY, Node.ANY);
+		try {
+			while (it.hasNext()) {
+				Kind kind = iKinds.get(it.next().getPredicate());
+				if (kind != null)
+					return kind;
+			}
+		} finally {
+			it.close();
+		}
+		return null;
+	}
+
+	/**
+	 * Walks up from a class expression to the named classes defined by it, over
+	 * the rdf:first/rdf:rest cells of the lists and the anonymous class
+	 * expressions. The walk uses an explicit stack, so long lists do not
+	 * overflow the call stack. The owners of blank nodes are memoized, a node
+	 * already on the path is not followed.
+	 */
+	private Set<Node> findOwners(final Graph iGraph, final Node iExpression) {
+		Set<Node> found = owners.get(iExpression);
+		if (found != null)
+			return found;
+
+		Deque<Owners> stack = new ArrayDeque<>();
+		Set<Node> path = new HashSet<>();
+		stack.push(new Owners(iGraph, iExpression));
+		path.add(iExpression);
+		while (!stack.isEmpty()) {
+			Owners top = stack.peek();
+			if (top.parts.hasNext()) {
+				Node part = top.parts.next();
+				if (path.contains(part))
+					continue;
+				Set<Node> memo = owners.get(part);
+				if (memo != null) {
+					top.found.addAll(memo);
+				} else {
+					stack.push(new Owners(iGraph, part));
+					path.add(part);
+				}
+			} else {
+				stack.pop();
+				path.remove(top.expression);
+				owners.put(top.expression, top.found.isEmpty() ? Collections.<Node>emptySet() : top.found);
+				if (!stack.isEmpty())
+					stack.peek().found.addAll(top.found);
+			}
+		}
+		return owners.get(iExpression);
+	}
+
+	/**
+	 * A class expression on the path of {@link #findOwners(Graph, Node)}: the
+	 * named classes found so far and the anonymous expressions or list cells
+	 * containing it, which are still to be visited.
+	 */
+	private static class Owners {
+		final Node expression;
+		final Set<Node> found = new LinkedHashSet<>();
+		final Iterator<Node> parts;
+
+		Owners(final Graph iGraph, final Node iExpression) {
+			this.expression = iExpression;
+			List<Node> containing = new ArrayList<>();
+			ExtendedIterator<Triple> it = iGraph.find(Node.ANY, Node.ANY, iExpression);
+			try {
+				while (it.hasNext()) {
+					Triple t = it.next();
+					Node s = t.getSubject();
+					Node p = t.getPredicate();
+					if (DEFINITIONS.contains(p) && s.isURI()) {
+						found.add(s);
+					} else if (PARTS.contains(p) && s.isBlank()) {
+						containing.add(s);
+					}
+				}
+			} finally {
+				it.close();
+			}
+			this.parts = containing.iterator();
+		}
+	}
+
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandles;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent cache of metric results on the local disk. An entry is keyed by
+ * the SHA-256 hash of the ontology file content, the metric names, the
+ * evaluation mode, the tool version and the
+ * {@link MetricRegistry#SEMANTICS_VERSION}, so the results of an unchanged
+ * ontology are returned without parsing it. The imported documents are not
+ * part of the key, so the results of an ontology with imports are not cached;
+ * neither are the results of an evaluation in which a metric failed.
+ * 
+ * The content hash of a file is remembered with its size and modification
+ * time; an unchanged file (same size and modification time) is not hashed
+ * again. New hashes are appended to the hash file, which is rewritten only
+ * when most of its lines are outdated. When the cache grows over the size
+ * limit, the least recently used entries (by the modification time of the
+ * entry, updated on every hit) are deleted.
+ */
+public class ResultCache {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	/**
+	 * Version of the tool, part of the key of every entry.
+	 */
+	public static final String VERSION = (ResultCache.class.getPackage().getImplementationVersion() == null) ? "dev"
+			: ResultCache.class.getPackage().getImplementationVersion();
+
+	private static final String ENTRY_SUFFIX = ".result";
+	private static final String HASHES = "hashes.properties";
+
+	private final Path directory;
+	private final long maxSize;
+
+	// absolute file name -> size, modification time and content hash
+	private final Properties hashes = new Properties();
+
+	/**
+	 * @param iDirectory
+	 *            cache directory (created if it does not exist)
+	 * @param iMaxSize
+	 *            maximal size of the cache in bytes
+	 * @throws IOException
+	 */
+	public ResultCache(final Path iDirectory, final long iMaxSize) throws IOException {
+		this.directory = iDirectory;
+		this.maxSize = iMaxSize;
+		Files.createDirectories(iDirectory);
+		Path file = iDirectory.resolve(HASHES);
+		if (Files.exists(file)) {
+			List<String> lines = Files.readAllLines(file, StandardCharsets.ISO_8859_1);
+			hashes.load(new StringReader(String.join("\n", lines)));
+			// a file hashed again appends a new line, the last one is valid
+			if (lines.size() > 2 * hashes.size() + 2)
+				write(file, hashes, "content hashes");
+		}
+	}
+
+	/**
+	 * Returns the cached results of the ontology file.
+	 * 
+	 * @param iFile
+	 *            ontology file
+	 * @param iMetricNames
+	 *            names of the metrics
+	 * @param iMode
+	 *            evaluation mode (e.g. model or streaming with the base
+	 *            namespace), results of different modes are cached separately
+	 * @return results or null if not cached
+	 * @throws IOException
+	 */
+	public Map<String, MetricResult> get(final String iFile, final List<String> iMetricNames, final String iMode)
+			throws IOException {
+		Path entry = entry(iFile, iMetricNames, iMode);
+		if (!Files.exists(entry))
+			return null;
+
+		Properties p = new Properties();
+		try (InputStream in = Files.newInputStream(entry)) {
+			p.load(in);
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Corrupt cache entry " + entry + " ignored", e);
+			return null;
+		}
+		try {
+			// recently used
+			Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			// evicted in the meantime
+		}
+
+		Map<String, MetricResult> results = new LinkedHashMap<>();
+		for (String name : iMetricNames) {
+			String value = p.getProperty(name + ".value");
+			if (value == null)
+				continue;
+			Map<String, Number> details = new LinkedHashMap<>();
+			String keys = p.getProperty(name + ".details", "");
+			for (String key : keys.isEmpty() ? new String[0] : keys.split(",")) {
+				details.put(key, parseNumber(p.getProperty(name + ".details." + key)));
+			}
+			results.put(name, new MetricResult(name, Double.parseDouble(value),
+					Double.parseDouble(p.getProperty(name + ".numerator")),
+					Double.parseDouble(p.getProperty(name + ".denominator")), details));
+		}
+		logger.info("Results of " + iFile + " found in the cache");
+		return results;
+	}
+
+	/**
+	 * Stores the results of the ontology file.
+	 * 
+	 * @param iFile
+	 *            ontology file
+	 * @param iMetricNames
+	 *            names of the metrics
+	 * @param iMode
+	 *            evaluation mode
+	 * @param iResults
+	 *            results of the metrics
+	 * @throws IOException
+	 */
+	public void put(final String iFile, final List<String> iMetricNames, final String iMode,
+			final Map<String, MetricResult> iResults) throws IOException {
+		Properties p = new Properties();
+		for (MetricResult result : iResults.values()) {
+			String name = result.getName();
+			p.setProperty(name + ".value", Double.toString(result.getValue()));
+			p.setProperty(name + ".numerator", Double.toString(result.getNumerator()));
+			p.setProperty(name + ".denominator", Double.toString(result.getDenominator()));
+			p.setProperty(name + ".details", String.join(",", result.getDetails().keySet()));
+			for (Map.Entry<String, Number> detail : result.getDetails().entrySet()) {
+				p.setProperty(name + ".details." + detail.getKey(), detail.getValue().toString());
+			}
+		}
+		write(entry(iFile, iMetricNames, iMode), p, iFile);
+		evict();
+	}
+
+	/**
+	 * @return path of the cache entry for the file content, the metrics, the mode
+	 *         and the version
+	 */
+	private Path entry(final String iFile, final List<String> iMetricNames, final String iMode)
+			throws IOException {
+		String key = VERSION + "\n" + MetricRegistry.SEMANTICS_VERSION + "\n" + iMode + "\n"
+				+ String.join(",", iMetricNames) + "\n" + contentHash(iFile);
+		return directory.resolve(hex(sha256().digest(key.getBytes(StandardCharsets.UTF_8))) + ENTRY_SUFFIX);
+	}
+
+	/**
+	 * Content hash of the file, computed again only if the size or the
+	 * modification time of the file changed.
+	 */
+	private synchronized String contentHash(final String iFile) throws IOException {
+		Path file = Paths.get(iFile).toAbsolutePath().normalize();
+		String stat = Files.size(file) + "," + Files.getLastModifiedTime(file).toMillis();
+		String cached = hashes.getProperty(file.toString());
+		if (cached != null && cached.startsWith(stat + ","))
+			return cached.substring(stat.length() + 1);
+
+		MessageDigest digest = sha256();
+		byte[] buffer = new byte[1 << 16];
+		try (InputStream in = Files.newInputStream(file)) {
+			for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+				digest.update(buffer, 0, n);
+			}
+		}
+		String hash = hex(digest.digest());
+		hashes.setProperty(file.toString(), stat + "," + hash);
+		append(directory.resolve(HASHES), file.toString(), stat + "," + hash);
+		return hash;
+	}
+
+	/**
+	 * Deletes the least recently used entries until the cache fits into the
+	 * size limit.
+	 */
+	private synchronized void evict() throws IOException {
+		List<Path> entries = new ArrayList<>();
+		long size = 0;
+		try (DirectoryStream<Path> dir = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+			for (Path entry : dir) {
+				entries.add(entry);
+				size += Files.size(entry);
+			}
+		}
+		if (size <= maxSize)
+			return;
+
+		Map<Path, Long> used = new LinkedHashMap<>();
+		for (Path entry : entries) {
+			used.put(entry, Files.getLastModifiedTime(entry).toMillis());
+		}
+		entries.sort((a, b) -> Long.compare(used.get(a), used.get(b)));
+		for (Path entry : entries) {
+			if (size <= maxSize)
+				break;
+			size -= Files.size(entry);
+			Files.deleteIfExists(entry);
+			logger.debug("Evicted " + entry);
+		}
+	}
+
+	/**
+	 * Writes to a temporary file first, so a concurrent reader never sees a
+	 * partially written file.
+	 */
+	private static void write(final Path iFile, final Properties iProperties, final String iComment)
+			throws IOException {
+		Path tmp = Files.createTempFile(iFile.getParent(), iFile.getFileName().toString(), ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			iProperties.store(out, iComment);
+		}
+		Files.move(tmp, iFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Appends a property to a properties file, a later line of the same key
+	 * replaces the earlier ones when the file is loaded.
+	 */
+	private static void append(final Path iFile, final String iKey, final String iValue) throws IOException {
+		Properties p = new Properties();
+		p.setProperty(iKey, iValue);
+		StringWriter sw = new StringWriter();
+		p.store(sw, null);
+		StringBuilder sb = new StringBuilder();
+		// without the date comment
+		for (String line : sw.toString().split("\\R")) {
+			if (!line.startsWith("#"))
+				sb.append(line).append('\n');
+		}
+		Files.write(iFile, sb.toString().getBytes(StandardCharsets.ISO_8859_1), StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	private static Number parseNumber(final String iValue) {
+		try {
+			return Long.valueOf(iValue);
+		} catch (NumberFormatException e) {
+			// no long
+		}
+		try {
+			return new BigInteger(iValue);
+		} catch (NumberFormatException e) {
+			return Double.valueOf(iValue);
+		}
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String hex(final byte[] iBytes) {
+		StringBuilder sb = new StringBuilder(iBytes.length * 2);
+		for (byte b : iBytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+}
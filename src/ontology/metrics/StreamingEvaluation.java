@@ -0,0 +1,188 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streaming evaluation of an ontology. The triples are passed from the RIOT
+ * parser directly to a {@link TripleMetricState}, so no
+ * {@link org.apache.jena.ontology.OntModel} is built and the heap needed does
+ * not grow with the number of triples (only with the number of classes,
+ * annotated or typed subjects and blank nodes). Only metrics implementing
+ * {@link StreamingMetric} are computed; owl:imports are not followed.
+ */
+public class StreamingEvaluation implements StreamRDF {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private final TripleMetricState state;
+
+	public StreamingEvaluation(final TripleMetricState iState) {
+		this.state = iState;
+	}
+
+	/**
+	 * @return statistics of the triples received so far
+	 */
+	public TripleMetricState getState() {
+		return state;
+	}
+
+	/**
+	 * Parses the file (the language is guessed from the file extension).
+	 * 
+	 * @param iFile
+	 *            file name or URL
+	 * @param iBaseNS
+	 *            base namespace, null to use the namespace with the empty prefix
+	 * @return statistics of the triples
+	 */
+	public static TripleMetricState parse(final String iFile, final String iBaseNS) {
+		TripleMetricState state = new TripleMetricState(iBaseNS);
+		long start = System.currentTimeMillis();
+		RDFDataMgr.parse(new StreamingEvaluation(state), iFile);
+		logger.info("Streamed " + state.getTripleCount() + " triples in " + (System.currentTimeMillis() - start)
+				+ " ms");
+		return state;
+	}
+
+	/**
+	 * Parses the input stream, e.g. System.in.
+	 * 
+	 * @param iInput
+	 *            input stream
+	 * @param iLang
+	 *            RDF syntax of the input
+	 * @param iBaseNS
+	 *            base namespace, null to use the namespace with the empty prefix
+	 * @return statistics of the triples
+	 */
+	public static TripleMetricState parse(final InputStream iInput, final Lang iLang, final String iBaseNS) {
+		TripleMetricState state = new TripleMetricState(iBaseNS);
+		long start = System.currentTimeMillis();
+		RDFDataMgr.parse(new StreamingEvaluation(state), iInput, iLang);
+		logger.info("Streamed " + state.getTripleCount() + " triples in " + (System.currentTimeMillis() - start)
+				+ " ms");
+		return state;
+	}
+
+	/**
+	 * Computes the metrics supporting streaming evaluation, the other metrics are
+	 * skipped.
+	 * 
+	 * @param iState
+	 *            statistics of the streamed triples
+	 * @param iMetrics
+	 *            metrics to compute
+	 * @return results in the order of the given metrics
+	 */
+	public static Map<String, MetricResult> run(final TripleMetricState iState, final List<OntologyMetric> iMetrics) {
+		return run(iState, iMetrics, null);
+	}
+
+	/**
+	 * Computes the metrics supporting streaming evaluation, the other metrics are
+	 * skipped. The hierarchy build and every metric are measured by the
+	 * instrumentation.
+	 * 
+	 * @param iState
+	 *            statistics of the streamed triples
+	 * @param iMetrics
+	 *            metrics to compute
+	 * @param iInstrumentation
+	 *            instrumentation of the evaluation, may be null
+	 * @return results in the order of the given metrics
+	 */
+	public static Map<String, MetricResult> run(final TripleMetricState iState, final List<OntologyMetric> iMetrics,
+			final Instrumentation iInstrumentation) {
+		if (iInstrumentation != null) {
+			// built on first use otherwise, measured apart from the first metric
+			Instrumentation.Span span = iInstrumentation.start(Instrumentation.PHASE, "index");
+			CompactHierarchy hierarchy = iState.getHierarchy();
+			int concepts = 0;
+			for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+				if (hierarchy.isNamedConcept(aConcept))
+					concepts++;
+			}
+			iInstrumentation.setOntology(null, iState.getTripleCount(), concepts);
+			span.end();
+		}
+		Map<String, MetricResult> results = new LinkedHashMap<>();
+		for (OntologyMetric metric : iMetrics) {
+			if (metric instanceof StreamingMetric) {
+				Instrumentation.Span span = (iInstrumentation == null) ? null
+						: iInstrumentation.start(Instrumentation.METRIC, metric.getName());
+				boolean ok = false;
+				MetricResult result = null;
+				try {
+					result = ((StreamingMetric) metric).compute(iState);
+					results.put(metric.getName(), result);
+					ok = true;
+				} catch (Exception e) {
+					logger.error("Failed: " + metric.getName(), e);
+				} finally {
+					if (span != null)
+						span.end(ok, result);
+				}
+			} else {
+				logger.warn(metric.getName() + " needs the ontology model, skipped in streaming mode");
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public void start() {
+
+	}
+
+	@Override
+	public void triple(Triple triple) {
+		state.add(triple);
+	}
+
+	@Override
+	public void quad(Quad quad) {
+		state.add(quad.asTriple());
+	}
+
+	@Override
+	public void base(String base) {
+
+	}
+
+	@Override
+	public void prefix(String prefix, String iri) {
+		state.addPrefix(prefix, iri);
+	}
+
+	@Override
+	public void finish() {
+
+	}
+
+}
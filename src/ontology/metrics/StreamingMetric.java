@@ -0,0 +1,41 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+/**
+ * A metric which can also be computed from the statistics collected while
+ * streaming the triples of an ontology ({@link TripleMetricState}), without
+ * building an {@link org.apache.jena.ontology.OntModel}.
+ */
+public interface StreamingMetric extends OntologyMetric {
+
+	/**
+	 * Computes the metric from the streamed statistics.
+	 * 
+	 * @param iState
+	 *            statistics of the streamed triples
+	 * @return the result of the metric
+	 */
+	MetricResult compute(TripleMetricState iState);
+
+	/**
+	 * @return true if the metric reads only the subsumption hierarchy of the
+	 *         state, so its result changes only with the hierarchy
+	 */
+	default boolean isHierarchyMetric() {
+		return false;
+	}
+
+}
@@ -15,13 +15,8 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Collections;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,22 +30,48 @@ import org.slf4j.LoggerFactory;
  * @author Andrej Tibaut
  * 
  */
-public class TMOnto2 {
+public class TMOnto2 implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public TMOnto2(OntModel ontologyModel) {
-		logger.info("*********************************************");
+	@Override
+	public String getName() {
+		return "TMOnto2";
+	}
 
-		logger.info("TMOnto2 - Tangledness2");
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		return compute(index.getCompactHierarchy());
+	}
+
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
+	}
 
-		// Find all subClass concepts (classes) in the graph
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
+	}
+
+	private MetricResult compute(final CompactHierarchy hierarchy) {
 		int ncm1p = 0;
 		int npc = 0;
-		final HashMap<OntClass, Integer> cm1p = findConceptsWithMoreThan1Parent(ontologyModel);
-		ncm1p = cm1p.size();
-		for (Iterator<Integer> itr = cm1p.values().iterator(); itr.hasNext();) {
-			npc = npc + itr.next();
+		for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+			int parents = hierarchy.getSuperClassCount(aConcept);
+			if (hierarchy.isNamedConcept(aConcept) && parents > 1) {
+				ncm1p++;
+				npc += parents;
+			}
 		}
+
+		return getTMOnto2(ncm1p, npc);
+	}
+
+	private MetricResult getTMOnto2(int ncm1p, int npc) {
+		logger.info("*********************************************");
+
+		logger.info("TMOnto2 - Tangledness2");
+
 		double tmonto2 = (double) npc / ncm1p;
 
 		logger.info("Number of concepts with more than 1 parent: " + ncm1p);
@@ -58,46 +79,7 @@ public class TMOnto2 {
 		logger.info("TMOnto2: " + tmonto2);
 		logger.info("*********************************************");
 
-	}
-
-	/**
-	 * The method finds all concepts with more than one direct parent in the
-	 * ontology
-	 * 
-	 * @param iOntologyModel
-	 * @return Hashmap of all concepts with more than one parent in the ontology
-	 *         including corresponding number of parents
-	 * @author Andrej Tibaut
-	 */
-	public static HashMap<OntClass, Integer> findConceptsWithMoreThan1Parent(final OntModel model) {
-		int i = 0;
-		final HashMap<OntClass, Integer> results = new HashMap<OntClass, Integer>();
-		final ExtendedIterator<OntClass> concepts = model.listClasses();
-
-		while (concepts.hasNext()) {
-			OntClass ontClass = (OntClass) concepts.next();
-			if (ontClass.getURI() != null) {
-				// get only direct parent concepts (=true)
-				final List<OntClass> parents = ontClass.listSuperClasses(true).toList();
-
-				if (parents.size() > 1) {
-					i++;
-					for (OntClass p : parents) {
-						Integer count = results.get(ontClass);
-						if (count == null) {
-							results.put(ontClass, 1);
-							logger.debug(
-									i + " Class " + ontClass.getLocalName() + " has superClass " + p.getLocalName());
-						} else {
-							results.put(ontClass, count + 1);
-							logger.debug(
-									i + " Class " + ontClass.getLocalName() + " has superClass " + p.getLocalName());
-						}
-					}
-				}
-			}
-		}
-		return results;
+		return new MetricResult(getName(), tmonto2, npc, ncm1p, Collections.<String, Number>emptyMap());
 	}
 
 }
\ No newline at end of file
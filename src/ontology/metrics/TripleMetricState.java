@@ -0,0 +1,815 @@
+/**
+ * Copyright 2026 The Ontology evaluation contributors
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.  
+ */
+package ontology.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.jena.vocabulary.XSD;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statistics of an ontology collected triple by triple, without building an
+ * {@link org.apache.jena.ontology.OntModel}. Only what the streaming metrics
+ * need is kept: the namespace usage histogram, the declared prefixes, the class
+ * nodes with the rdfs:subClassOf edges, per subject counts of annotations,
+ * the asserted types of the individuals, per subject counts of property usages
+ * and the objects of blank nodes (class expressions).
+ * 
+ * Triples are counted as they arrive, duplicate triples (possible in N-Triples
+ * exports) are counted again except for the subclass edges. States of chunks
+ * of the same file parsed in parallel are combined with
+ * {@link #merge(TripleMetricState)}. A removed triple ({@link #remove(Triple)})
+ * is uncounted. The counters read by the metrics are updated by every added
+ * and removed triple, the hierarchy is built again only after a change of the
+ * classes or the subclass edges and reuses the path statistics of the classes
+ * not affected by the change. The annotations of a subject are dropped when it
+ * is typed as an individual before it is declared a class, so a class punned
+ * as an individual may count fewer annotations than in the model mode.
+ * 
+ * The memory grows with the classes, the typed subjects (individuals) and the
+ * blank nodes, not with the triples: the asserted types and the property
+ * usages are kept per typed subject and the objects per blank node (about 270
+ * bytes per individual). They are not reduced to per-class counters, as the
+ * usages of an individual may arrive before its type, its direct types depend
+ * on the final hierarchy and a removed triple or a merged chunk must be
+ * uncounted per subject.
+ */
+public class TripleMetricState {
+	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+	private static final Node TYPE = RDF.type.asNode();
+	private static final Node SUB_CLASS_OF = RDFS.subClassOf.asNode();
+	private static final Node THING = OWL.Thing.asNode();
+	private static final Node RESOURCE = RDFS.Resource.asNode();
+	private static final Set<Node> CLASS_TYPES = new HashSet<>(
+			Arrays.asList(OWL.Class.asNode(), OWL.Restriction.asNode()));
+
+	private final Map<String, String> prefixes = new LinkedHashMap<>();
+	private final NamespaceHistogram histogram = new NamespaceHistogram();
+	// base namespace given to the constructor, kept when prefixes are removed
+	private final String fixedBaseNS;
+	private String baseNS;
+	// base and standard namespaces of the nodes, rebuilt when the base changes
+	private NamespaceResolver resolver;
+	private long triples;
+
+	// class nodes and subclass edges, (subclass << 32) | superclass
+	private final Map<Node, Integer> ids = new HashMap<>();
+	private final List<Node> nodes = new ArrayList<>();
+	// class -> number of rdf:type class declarations
+	private final Map<Integer, int[]> declared = new HashMap<>();
+	private final Set<Long> edges = new LinkedHashSet<>();
+
+	// subject -> predicate -> number of annotations, kept for every predicate
+	// outside the standard namespaces that is not a declared object or data
+	// property, as it may be declared an annotation property later in the
+	// stream; the subjects typed as individuals are dropped unless declared as
+	// classes, so instance data does not accumulate
+	private final Map<Node, Map<Node, int[]>> annotations = new HashMap<>();
+	private final Set<Node> annotationProperties = new HashSet<>();
+	// individual -> asserted types outside the standard namespaces
+	private final Map<Node, List<Node>> types = new HashMap<>();
+	// subject -> number of rdf:type to a non default class, number of usages of
+	// base properties
+	private final Map<Node, int[]> subjects = new HashMap<>();
+	// blank node -> objects, named resource -> blank objects
+	private final Map<Node, List<Node>> resourceObjects = new HashMap<>();
+	// memoized class expression counts, dropped on every change of the class
+	// expressions
+	private ClassExpressionWalker expressions;
+	// class expression counts of all named concepts, null after a change of the
+	// class expressions or of the concepts
+	private Long conceptExpressions;
+
+	private final Set<Node> objectProperties = new HashSet<>();
+	private final Set<Node> dataProperties = new HashSet<>();
+
+	// counters kept up to date by every added and removed triple, recounted
+	// after a merge
+	private boolean recount;
+	private int namedConcepts;
+	// annotations of the named concepts with annotation properties
+	private long conceptAnnotations;
+	// usages of base properties in statements about individuals
+	private long individualUsages;
+
+	// direct types of the individuals counted against the hierarchy, the
+	// individuals retyped since are counted again on the next query
+	private CROnto.DirectTypes typesCounter;
+	private Map<Node, Integer> typesConcepts;
+	private long directInstances;
+	private final Set<Node> retyped = new HashSet<>();
+
+	private CompactHierarchy hierarchy;
+	// the classes or the subclass edges changed since the hierarchy was built
+	private boolean modified;
+	// direct subclass edges of the hierarchy built last
+	private Set<Long> direct = Collections.emptySet();
+	// direct subclasses of the named concepts in the hierarchy built last
+	private int subConcepts;
+
+	/**
+	 * @param iBaseNS
+	 *            base namespace, null to use the namespace with the empty prefix
+	 */
+	public TripleMetricState(final String iBaseNS) {
+		this.fixedBaseNS = iBaseNS;
+		this.baseNS = iBaseNS;
+		this.resolver = new NamespaceResolver(iBaseNS, Collections.<String>emptyList());
+		if (iBaseNS != null)
+			prefixes.put("", iBaseNS);
+	}
+
+	/**
+	 * Records a prefix declaration.
+	 * 
+	 * @param iPrefix
+	 *            prefix, "" for the base namespace
+	 * @param iNS
+	 *            namespace
+	 */
+	public void addPrefix(final String iPrefix, final String iNS) {
+		if (iPrefix.isEmpty() && baseNS != null)
+			return;
+		prefixes.put(iPrefix, iNS);
+		if (iPrefix.isEmpty()) {
+			baseNS = iNS;
+			resolver = new NamespaceResolver(iNS, Collections.<String>emptyList());
+		}
+	}
+
+	/**
+	 * Removes a prefix declaration. The base namespace given to the constructor
+	 * is kept.
+	 * 
+	 * @param iPrefix
+	 *            prefix, "" for the base namespace
+	 */
+	public void removePrefix(final String iPrefix) {
+		if (iPrefix.isEmpty() && fixedBaseNS != null)
+			return;
+		prefixes.remove(iPrefix);
+		if (iPrefix.isEmpty()) {
+			baseNS = null;
+			resolver = new NamespaceResolver(null, Collections.<String>emptyList());
+		}
+	}
+
+	/**
+	 * Records a triple.
+	 * 
+	 * @param iTriple
+	 *            a triple
+	 */
+	public void add(final Triple iTriple) {
+		triples++;
+		histogram.add(iTriple);
+
+		final Node s = iTriple.getSubject();
+		final Node p = iTriple.getPredicate();
+		final Node o = iTriple.getObject();
+
+		if (TYPE.equals(p)) {
+			if (CLASS_TYPES.contains(o)) {
+				modified = true;
+				if (declared.computeIfAbsent(id(s), k -> new int[1])[0]++ == 0)
+					conceptChanged(s, 1);
+			} else if (OWL.ObjectProperty.asNode().equals(o)) {
+				objectProperties.add(s);
+			} else if (OWL.DatatypeProperty.asNode().equals(o)) {
+				dataProperties.add(s);
+			} else if (OWL.AnnotationProperty.asNode().equals(o)) {
+				if (annotationProperties.add(s) && !ANOnto.ANNOTATIONS.contains(s))
+					conceptAnnotations += countAnnotationsOfConcepts(s);
+			} else if (o.isURI() && !resolver.resolve(o).isStandard()) {
+				retype(s);
+				types.computeIfAbsent(s, k -> new ArrayList<>(1)).add(o);
+				countSubject(s, 0, 1);
+				if (!isDeclared(s))
+					annotations.remove(s);
+			}
+		} else if (SUB_CLASS_OF.equals(p)) {
+			modified = true;
+			if (!s.equals(o))
+				edges.add(((long) id(s) << 32) | id(o));
+		}
+
+		if (s.isURI() && isAnnotationCandidate(p) && !isIndividual(s)) {
+			increment(annotations.computeIfAbsent(s, k -> new HashMap<>(4)), p, 0, 1);
+			if (isAnnotationProperty(p) && isDeclared(s))
+				conceptAnnotations++;
+		}
+
+		if (resolver.resolve(p).isBase())
+			countSubject(s, 1, 1);
+
+		if (!o.isLiteral() && (s.isBlank() || o.isBlank())) {
+			resourceObjects.computeIfAbsent(s, k -> new ArrayList<>(2)).add(o);
+			expressionsChanged();
+		}
+	}
+
+	/**
+	 * Uncounts a triple recorded before (e.g. a deletion of an RDF patch). The
+	 * class nodes keep their positions, so the hierarchy built next can reuse the
+	 * path statistics of the unaffected classes.
+	 * 
+	 * @param iTriple
+	 *            a triple
+	 */
+	public void remove(final Triple iTriple) {
+		triples--;
+		histogram.remove(iTriple);
+
+		final Node s = iTriple.getSubject();
+		final Node p = iTriple.getPredicate();
+		final Node o = iTriple.getObject();
+
+		if (TYPE.equals(p)) {
+			if (CLASS_TYPES.contains(o)) {
+				modified = true;
+				Integer id = ids.get(s);
+				if (id != null) {
+					int[] counts = declared.get(id);
+					if (counts != null && --counts[0] <= 0) {
+						conceptChanged(s, -1);
+						declared.remove(id);
+					}
+				}
+			} else if (OWL.ObjectProperty.asNode().equals(o)) {
+				objectProperties.remove(s);
+			} else if (OWL.DatatypeProperty.asNode().equals(o)) {
+				dataProperties.remove(s);
+			} else if (OWL.AnnotationProperty.asNode().equals(o)) {
+				if (annotationProperties.remove(s) && !ANOnto.ANNOTATIONS.contains(s))
+					conceptAnnotations -= countAnnotationsOfConcepts(s);
+			} else if (o.isURI() && !resolver.resolve(o).isStandard()) {
+				retype(s);
+				List<Node> asserted = types.get(s);
+				if (asserted != null && asserted.remove(o) && asserted.isEmpty())
+					types.remove(s);
+				countSubject(s, 0, -1);
+			}
+		} else if (SUB_CLASS_OF.equals(p)) {
+			modified = true;
+			Integer sub = ids.get(s);
+			Integer sup = ids.get(o);
+			if (sub != null && sup != null)
+				edges.remove(((long) sub << 32) | sup);
+		}
+
+		Map<Node, int[]> annotated = annotations.get(s);
+		if (annotated != null && annotated.containsKey(p)) {
+			increment(annotated, p, 0, -1);
+			if (annotated.isEmpty())
+				annotations.remove(s);
+			if (isAnnotationProperty(p) && isDeclared(s))
+				conceptAnnotations--;
+		}
+
+		if (resolver.resolve(p).isBase())
+			countSubject(s, 1, -1);
+
+		if (!o.isLiteral() && (s.isBlank() || o.isBlank())) {
+			List<Node> objects = resourceObjects.get(s);
+			if (objects != null && objects.remove(o) && objects.isEmpty())
+				resourceObjects.remove(s);
+			expressionsChanged();
+		}
+	}
+
+	/**
+	 * Adds the statistics of the other state, e.g. of another chunk of the same
+	 * file. Blank nodes are the same in both states only if the chunks were
+	 * parsed with the same blank node scope.
+	 * 
+	 * @param iOther
+	 *            statistics of other triples
+	 */
+	public void merge(final TripleMetricState iOther) {
+		hierarchy = null;
+		modified = true;
+		expressionsChanged();
+		typesCounter = null;
+		retyped.clear();
+		recount = true;
+		triples += iOther.triples;
+		histogram.merge(iOther.histogram);
+		for (Map.Entry<String, String> entry : iOther.prefixes.entrySet()) {
+			addPrefix(entry.getKey(), entry.getValue());
+		}
+
+		int[] remap = new int[iOther.nodes.size()];
+		for (int i = 0; i < remap.length; i++) {
+			remap[i] = id(iOther.nodes.get(i));
+		}
+		for (Map.Entry<Integer, int[]> entry : iOther.declared.entrySet()) {
+			declared.computeIfAbsent(remap[entry.getKey()], k -> new int[1])[0] += entry.getValue()[0];
+		}
+		for (long edge : iOther.edges) {
+			edges.add(((long) remap[(int) (edge >>> 32)] << 32) | remap[(int) edge]);
+		}
+
+		for (Map.Entry<Node, Map<Node, int[]>> entry : iOther.annotations.entrySet()) {
+			merge(annotations.computeIfAbsent(entry.getKey(), k -> new HashMap<>()), entry.getValue());
+		}
+		annotationProperties.addAll(iOther.annotationProperties);
+		for (Map.Entry<Node, List<Node>> entry : iOther.types.entrySet()) {
+			types.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(entry.getValue().size()))
+					.addAll(entry.getValue());
+		}
+		for (Map.Entry<Node, int[]> entry : iOther.subjects.entrySet()) {
+			int[] counts = subjects.get(entry.getKey());
+			if (counts == null) {
+				subjects.put(entry.getKey(), entry.getValue().clone());
+			} else {
+				counts[0] += entry.getValue()[0];
+				counts[1] += entry.getValue()[1];
+			}
+		}
+		for (Map.Entry<Node, List<Node>> entry : iOther.resourceObjects.entrySet()) {
+			resourceObjects.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(entry.getValue().size()))
+					.addAll(entry.getValue());
+		}
+
+		objectProperties.addAll(iOther.objectProperties);
+		dataProperties.addAll(iOther.dataProperties);
+
+		// subjects typed as individuals in the other state or annotated there
+		for (Node aSubject : iOther.types.keySet()) {
+			if (isIndividual(aSubject))
+				annotations.remove(aSubject);
+		}
+		for (Node aSubject : iOther.annotations.keySet()) {
+			if (isIndividual(aSubject))
+				annotations.remove(aSubject);
+		}
+	}
+
+	/**
+	 * @param iPredicate
+	 *            a predicate
+	 * @return true if statements with the predicate may be annotations
+	 */
+	private boolean isAnnotationCandidate(final Node iPredicate) {
+		if (ANOnto.ANNOTATIONS.contains(iPredicate) || annotationProperties.contains(iPredicate))
+			return true;
+		return !resolver.resolve(iPredicate).isStandard() && !objectProperties.contains(iPredicate)
+				&& !dataProperties.contains(iPredicate);
+	}
+
+	/**
+	 * @param iSubject
+	 *            a subject
+	 * @return true if the subject is typed with a class and not declared as a
+	 *         class
+	 */
+	private boolean isIndividual(final Node iSubject) {
+		return types.containsKey(iSubject) && !isDeclared(iSubject);
+	}
+
+	private boolean isDeclared(final Node iNode) {
+		Integer id = ids.get(iNode);
+		return id != null && declared.containsKey(id);
+	}
+
+	private boolean isAnnotationProperty(final Node iPredicate) {
+		return ANOnto.ANNOTATIONS.contains(iPredicate) || annotationProperties.contains(iPredicate);
+	}
+
+	/**
+	 * @param iProperty
+	 *            an annotation property
+	 * @return number of annotations of the named concepts with the property
+	 */
+	private long countAnnotationsOfConcepts(final Node iProperty) {
+		long n = 0;
+		for (int aClass : declared.keySet()) {
+			Map<Node, int[]> annotated = annotations.get(nodes.get(aClass));
+			int[] counts = (annotated == null) ? null : annotated.get(iProperty);
+			if (counts != null && nodes.get(aClass).isURI())
+				n += counts[0];
+		}
+		return n;
+	}
+
+	/**
+	 * Counts the counters again from the collected statistics, after a merge.
+	 */
+	private void recount() {
+		if (!recount)
+			return;
+		namedConcepts = 0;
+		conceptAnnotations = 0;
+		for (int aClass : declared.keySet()) {
+			Node node = nodes.get(aClass);
+			if (node.isURI()) {
+				namedConcepts++;
+				conceptAnnotations += countAnnotations(node);
+			}
+		}
+		individualUsages = 0;
+		for (int[] counts : subjects.values()) {
+			if (counts[0] > 0)
+				individualUsages += counts[1];
+		}
+		recount = false;
+	}
+
+	/**
+	 * Updates the counters of the concepts when a class is declared or no
+	 * longer declared.
+	 * 
+	 * @param iClass
+	 *            the class
+	 * @param iDelta
+	 *            1 if declared, -1 if no longer declared
+	 */
+	private void conceptChanged(final Node iClass, final int iDelta) {
+		conceptExpressions = null;
+		if (iClass.isURI()) {
+			namedConcepts += iDelta;
+			conceptAnnotations += iDelta * countAnnotations(iClass);
+		}
+	}
+
+	private void expressionsChanged() {
+		expressions = null;
+		conceptExpressions = null;
+	}
+
+	/**
+	 * Counts a change of a subject and updates the usages of base properties in
+	 * statements about individuals.
+	 * 
+	 * @param iSubject
+	 *            the subject
+	 * @param iIndex
+	 *            0 for the types, 1 for the usages of base properties
+	 * @param iDelta
+	 *            1 or -1
+	 */
+	private void countSubject(final Node iSubject, final int iIndex, final int iDelta) {
+		int[] counts = subjects.get(iSubject);
+		long before = (counts != null && counts[0] > 0) ? counts[1] : 0;
+		increment(subjects, iSubject, iIndex, iDelta);
+		counts = subjects.get(iSubject);
+		long after = (counts != null && counts[0] > 0) ? counts[1] : 0;
+		individualUsages += after - before;
+	}
+
+	/**
+	 * Uncounts the direct types of the individual before its types change, they
+	 * are counted again on the next query.
+	 */
+	private void retype(final Node iIndividual) {
+		if (typesCounter != null && retyped.add(iIndividual))
+			directInstances -= countDirectTypes(iIndividual);
+	}
+
+	private int countDirectTypes(final Node iIndividual) {
+		List<Node> asserted = types.get(iIndividual);
+		return (asserted == null) ? 0 : typesCounter.count(CROnto.getTypeIds(asserted, typesConcepts), null);
+	}
+
+	private static void merge(final Map<Node, int[]> iCounts, final Map<Node, int[]> iOther) {
+		for (Map.Entry<Node, int[]> entry : iOther.entrySet()) {
+			int[] counts = iCounts.get(entry.getKey());
+			if (counts == null)
+				iCounts.put(entry.getKey(), entry.getValue().clone());
+			else
+				counts[0] += entry.getValue()[0];
+		}
+	}
+
+	private int id(final Node iNode) {
+		Integer id = ids.get(iNode);
+		if (id == null) {
+			id = nodes.size();
+			ids.put(iNode, id);
+			nodes.add(iNode);
+		}
+		return id;
+	}
+
+	private static void increment(final Map<Node, int[]> iCounts, final Node iNode, final int iIndex,
+			final int iDelta) {
+		int[] counts = iCounts.get(iNode);
+		if (counts == null) {
+			counts = new int[2];
+			iCounts.put(iNode, counts);
+		}
+		counts[iIndex] += iDelta;
+		if (counts[0] <= 0 && counts[1] <= 0)
+			iCounts.remove(iNode);
+	}
+
+	private static void increment(final Map<Integer, int[]> iCounts, final int iId) {
+		iCounts.computeIfAbsent(iId, k -> new int[1])[0]++;
+	}
+
+	/**
+	 * @return number of triples seen
+	 */
+	public long getTripleCount() {
+		return triples;
+	}
+
+	/**
+	 * @return declared prefixes, prefix -> namespace (the base namespace has the
+	 *         empty prefix)
+	 */
+	public Map<String, String> getPrefixes() {
+		return Collections.unmodifiableMap(prefixes);
+	}
+
+	/**
+	 * @return namespace usage histogram of all triples
+	 */
+	public NamespaceHistogram getNamespaceHistogram() {
+		return histogram;
+	}
+
+	/**
+	 * The hierarchy has the direct superclasses of the model mode: an asserted
+	 * superclass is left out if another asserted superclass of the same class
+	 * is its asserted subclass, or if it is an asserted subclass of the class
+	 * itself. The roots are the declared classes outside the OWL, RDF, RDFS and
+	 * XML Schema namespaces whose only direct superclasses are owl:Thing or
+	 * rdfs:Resource.
+	 * 
+	 * @return subsumption hierarchy of the classes seen so far
+	 */
+	public synchronized CompactHierarchy getHierarchy() {
+		if (hierarchy == null || modified) {
+			boolean[] d = new boolean[nodes.size()];
+			for (int i : declared.keySet()) {
+				d[i] = true;
+			}
+			Set<Long> previous = (hierarchy == null) ? Collections.<Long>emptySet() : direct;
+			direct = directEdges();
+			// classes whose direct subclasses changed
+			Set<Integer> changed = new HashSet<>();
+			for (long edge : direct) {
+				if (!previous.contains(edge))
+					changed.add((int) edge);
+			}
+			for (long edge : previous) {
+				if (!direct.contains(edge))
+					changed.add((int) edge);
+			}
+			hierarchy = new CompactHierarchy(nodes, d, direct, roots(), hierarchy, changed);
+			modified = false;
+			subConcepts = 0;
+			for (int aConcept = 0; aConcept < hierarchy.getSize(); aConcept++) {
+				if (hierarchy.isNamedConcept(aConcept))
+					subConcepts += hierarchy.getSubClassCount(aConcept);
+			}
+		}
+		return hierarchy;
+	}
+
+	/**
+	 * @return the root classes of the direct subclass edges, in the order of
+	 *         the class nodes
+	 */
+	private int[] roots() {
+		Set<Integer> inner = new HashSet<>();
+		for (long edge : direct) {
+			Node sup = nodes.get((int) edge);
+			if (!THING.equals(sup) && !RESOURCE.equals(sup))
+				inner.add((int) (edge >>> 32));
+		}
+		return declared.keySet().stream().filter(c -> !inner.contains(c) && !isLanguageTerm(nodes.get(c)))
+				.mapToInt(Integer::intValue).sorted().toArray();
+	}
+
+	/**
+	 * @param iNode
+	 *            a class node
+	 * @return true if the class is a term of the OWL, RDF, RDFS or XML Schema
+	 *         vocabulary
+	 */
+	private static boolean isLanguageTerm(final Node iNode) {
+		if (!iNode.isURI())
+			return false;
+		String uri = iNode.getURI();
+		return uri.startsWith(OWL.NS) || uri.startsWith(RDF.uri) || uri.startsWith(RDFS.uri)
+				|| uri.startsWith(XSD.NS);
+	}
+
+	/**
+	 * Same rule as OntClass.listSuperClasses(true) of a model without a
+	 * reasoner.
+	 * 
+	 * @return the subclass edges without the superclasses covered by another
+	 *         superclass of the same class, in the order of the asserted edges
+	 */
+	private Set<Long> directEdges() {
+		Map<Integer, List<Integer>> superClasses = new HashMap<>();
+		for (long edge : edges) {
+			superClasses.computeIfAbsent((int) (edge >>> 32), k -> new ArrayList<>(1)).add((int) edge);
+		}
+
+		Set<Long> result = new LinkedHashSet<>();
+		for (long edge : edges) {
+			int sub = (int) (edge >>> 32);
+			int sup = (int) edge;
+			boolean covered = edges.contains(((long) sup << 32) | sub);
+			for (int other : superClasses.get(sub)) {
+				if (covered)
+					break;
+				covered = other != sup && edges.contains(((long) other << 32) | sup)
+						&& !edges.contains(((long) sup << 32) | other);
+			}
+			if (!covered)
+				result.add(edge);
+		}
+		return result;
+	}
+
+	/**
+	 * @param iConcept
+	 *            a concept
+	 * @return number of annotations (rdfs:comment, rdfs:label, rdfs:seeAlso,
+	 *         rdfs:isDefinedBy, owl:versionInfo and the declared
+	 *         owl:AnnotationProperty predicates) of the concept
+	 */
+	public int getNumberOfAnnotations(final Node iConcept) {
+		return countAnnotations(iConcept);
+	}
+
+	/**
+	 * @return number of declared classes (named concepts and class expressions)
+	 */
+	public int getNumberOfDeclaredClasses() {
+		return declared.size();
+	}
+
+	/**
+	 * @return number of direct subclasses of the named concepts, counted when
+	 *         the hierarchy is built
+	 */
+	public synchronized int getNumberOfSubConcepts() {
+		getHierarchy();
+		return subConcepts;
+	}
+
+	/**
+	 * @return number of declared classes with a URI
+	 */
+	public synchronized int getNumberOfNamedConcepts() {
+		recount();
+		return namedConcepts;
+	}
+
+	/**
+	 * @return number of annotations of the named concepts, kept up to date by
+	 *         every added and removed triple
+	 */
+	public synchronized long getNumberOfAnnotationsOfConcepts() {
+		recount();
+		return conceptAnnotations;
+	}
+
+	private int countAnnotations(final Node iConcept) {
+		Map<Node, int[]> annotated = annotations.get(iConcept);
+		if (annotated == null)
+			return 0;
+		int n = 0;
+		for (Map.Entry<Node, int[]> entry : annotated.entrySet()) {
+			if (isAnnotationProperty(entry.getKey()))
+				n += entry.getValue()[0];
+		}
+		return n;
+	}
+
+	/**
+	 * @return built-in annotation properties and the predicates declared as
+	 *         owl:AnnotationProperty
+	 */
+	public Set<Node> getAnnotationProperties() {
+		Set<Node> properties = new LinkedHashSet<>(ANOnto.ANNOTATIONS);
+		properties.addAll(annotationProperties);
+		return properties;
+	}
+
+	/**
+	 * Counts the direct individuals of the named concepts as
+	 * {@link CROnto#countDirectInstances(Map, CompactHierarchy, Map)}. All
+	 * individuals are counted after a change of the hierarchy, otherwise only
+	 * the individuals whose types changed since the last call.
+	 * 
+	 * @return number of direct individuals of all concepts
+	 */
+	public synchronized long getNumberOfDirectIndividuals() {
+		CompactHierarchy current = getHierarchy();
+		if (typesCounter == null || typesCounter.getHierarchy() != current) {
+			typesCounter = new CROnto.DirectTypes(current);
+			typesConcepts = new HashMap<>();
+			for (int aConcept = 0; aConcept < current.getSize(); aConcept++) {
+				if (current.isNamedConcept(aConcept))
+					typesConcepts.put(current.getNode(aConcept), aConcept);
+			}
+			directInstances = 0;
+			for (int n : CROnto.countDirectInstances(types, current, typesConcepts)) {
+				directInstances += n;
+			}
+		} else {
+			for (Node anIndividual : retyped) {
+				directInstances += countDirectTypes(anIndividual);
+			}
+		}
+		retyped.clear();
+		return directInstances;
+	}
+
+	/**
+	 * @return number of usages of base namespace properties in statements about
+	 *         individuals
+	 */
+	public synchronized long getNumberOfUsagesOfPropertiesInIndividuals() {
+		recount();
+		return individualUsages;
+	}
+
+	/**
+	 * Counts the resources used in the class expressions (blank nodes) of the
+	 * concept, following nested blank nodes, the same way as
+	 * {@link PROnto#countUsagesOfPropertiesInConcepts}. The counts of the class
+	 * expressions are kept until the next change of the state.
+	 * 
+	 * @param iConcept
+	 *            a concept
+	 * @return number of resources
+	 */
+	public long getNumberOfUsagesOfPropertiesInConcept(final Node iConcept) {
+		if (expressions == null)
+			expressions = new ClassExpressionWalker(aNode -> objects(aNode).iterator(), Node::isURI);
+		return expressions.countExpressions(iConcept);
+	}
+
+	/**
+	 * @return number of resources used in the class expressions of all named
+	 *         concepts, kept until the class expressions or the concepts change
+	 */
+	public synchronized long getNumberOfUsagesOfPropertiesInConcepts() {
+		if (conceptExpressions == null) {
+			long n = 0;
+			for (int aClass : declared.keySet()) {
+				if (nodes.get(aClass).isURI())
+					n += getNumberOfUsagesOfPropertiesInConcept(nodes.get(aClass));
+			}
+			conceptExpressions = n;
+		}
+		return conceptExpressions;
+	}
+
+	private List<Node> objects(final Node iNode) {
+		List<Node> objects = resourceObjects.get(iNode);
+		return (objects == null) ? Collections.<Node>emptyList() : objects;
+	}
+
+	/**
+	 * @return number of declared object properties
+	 */
+	public int getNumberOfObjectProperties() {
+		return objectProperties.size();
+	}
+
+	/**
+	 * @return number of declared data properties
+	 */
+	public int getNumberOfDataProperties() {
+		return dataProperties.size();
+	}
+
+}
@@ -15,13 +15,12 @@
 package ontology.metrics;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.jena.ontology.OntClass;
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,107 +30,58 @@ import org.slf4j.LoggerFactory;
  * Formula: DITOnto=Max(PathLength(CThing,LeafCi)), where PathLength is the
  * function that calculates length between the i-th leaf concept LeafCi and the
  * CThing (owl:Thing). The maximum path length (Max) is then selected as result.
- * Inspired by:
- * https://stackoverflow.com/questions/40626898/getting-all-possible-paths-in-a-tree-structure
  * 
  * 
  * @author Andrej Tibaut
  */
-public class WMCOnto2 {
+public class WMCOnto2 implements StreamingMetric {
 	final static Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-	public WMCOnto2(OntModel ontologyModel) {
-		logger.info("*********************************************");
-
-		logger.info("WMCOnto2 - Weigth method per class");
-
-		int allPathsLength = 0;
-		List<List<OntClass>> allPathsThing2Leaf = getAllPathsFromThing2Leaf(ontologyModel);
-		for (List<OntClass> path : allPathsThing2Leaf) {
-			allPathsLength += path.size();
-		}
-
-		// find all concepts in the ontology
-		final List<OntClass> leafConcepts = findLeafConcepts(ontologyModel);
-
-		logger.info("Number of all leafs: " + leafConcepts.size());
-		logger.info("Number of all leaf paths: " + allPathsThing2Leaf.size());
-		logger.info("Sum of all legths of all paths between Thing and leaf: " + allPathsLength);
-		double WMCOnto2 = (double) allPathsThing2Leaf.size() / leafConcepts.size();
-		logger.info("WMCOnto2 (Weigth method per class ):" + WMCOnto2);
-		logger.info("*********************************************");
-
+	@Override
+	public String getName() {
+		return "WMCOnto2";
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<OntClass> findLeafConcepts(final OntModel model) {
-		final List<OntClass> results = new ArrayList<OntClass>();
-
-		final ExtendedIterator<OntClass> concepts = model.listClasses();
-		while (concepts.hasNext()) {
-			OntClass aConcept = (OntClass) concepts.next();
-			if (aConcept.listSubClasses(true).toList().size() == 0) {
-				logger.debug("LEAF: " + aConcept.getLocalName());
-				results.add(aConcept);
-			}
-		}
-
-		return results;
+	@Override
+	public List<Intermediate> getIntermediates() {
+		return Collections.singletonList(Intermediate.PATHS);
 	}
 
-	/**
-	 * The method finds all concepts in the ontology.
-	 * 
-	 * @param iOntologyModel
-	 * @return List of concepts in the ontology
-	 * @author Andrej Tibaut
-	 */
-	public static List<List<OntClass>> getAllPathsFromThing2Leaf(final OntModel iOntModel) {
-		List<List<OntClass>> allPathsThing2Leaf = new ArrayList<>();
+	@Override
+	public MetricResult compute(OntologyIndex index) {
+		return compute(index.getCompactHierarchy());
+	}
 
-		ExtendedIterator<OntClass> rootConcepts = iOntModel.listHierarchyRootClasses();
-		while (rootConcepts.hasNext()) {
-			OntClass aConcept = (OntClass) rootConcepts.next();
-			OntClass theThing = aConcept.getSuperClass();
+	@Override
+	public MetricResult compute(TripleMetricState iState) {
+		return compute(iState.getHierarchy());
+	}
 
-			// in case the root concept doesn't have rdfs:subClassOf
-			// rdf:resource="http://www.w3.org/2002/07/owl#Thing" (ontology pitfall)
-			String name = ((theThing == null) || (theThing.getLocalName() == null) ? "N/A" : theThing.getLocalName());
-			allPathsThing2Leaf = searchDepthFirstAllThing2LeafPaths(aConcept, name);
-		}
-		logger.debug("All paths Thing to leaf: " + allPathsThing2Leaf);
+	@Override
+	public boolean isHierarchyMetric() {
+		return true;
+	}
 
-		return allPathsThing2Leaf;
+	private MetricResult compute(final CompactHierarchy iHierarchy) {
+		// paths are counted, not enumerated
+		return getWMCOnto2(iHierarchy.getPathLengthSum(), iHierarchy.getPathCount(), iHierarchy.getLeafCount());
 	}
 
-	public static List<List<OntClass>> searchDepthFirstAllThing2LeafPaths(OntClass iConcept, String s) {
-		List<List<OntClass>> retLists = new ArrayList<>();
+	private MetricResult getWMCOnto2(BigInteger allPathsLength, BigInteger allPathsThing2Leaf, int nlc) {
+		logger.info("*********************************************");
+
+		logger.info("WMCOnto2 - Weigth method per class");
 
-		if (iConcept.listSubClasses(true).toList().size() == 0) {
-			logger.debug(s + " --> " + iConcept.getLocalName());
-			List<OntClass> leafList = new LinkedList<>();
-			leafList.add(iConcept);
-			retLists.add(leafList);
-		} else {
-			ExtendedIterator<OntClass> isubConcepts = iConcept.listSubClasses(true);
-			while (isubConcepts.hasNext()) {
-				OntClass subConcept = isubConcepts.next();
-				List<List<OntClass>> nodeLists = searchDepthFirstAllThing2LeafPaths(subConcept,
-						s + " --> " + iConcept.getLocalName());
-				for (List<OntClass> nodeList : nodeLists) {
-					nodeList.add(0, iConcept);
-					retLists.add(nodeList);
-				}
-			}
+		logger.info("Number of all leafs: " + nlc);
+		logger.info("Number of all leaf paths: " + allPathsThing2Leaf);
+		logger.info("Sum of all legths of all paths between Thing and leaf: " + allPathsLength);
+		double WMCOnto2 = CompactHierarchy.divide(allPathsThing2Leaf, BigInteger.valueOf(nlc));
+		logger.info("WMCOnto2 (Weigth method per class ):" + WMCOnto2);
+		logger.info("*********************************************");
 
-		}
-		return retLists;
+		Map<String, Number> details = new LinkedHashMap<>();
+		details.put("pathLengthSum", allPathsLength);
+		return new MetricResult(getName(), WMCOnto2, allPathsThing2Leaf.doubleValue(), nlc, details);
 	}
 
 }
\ No newline at end of file